@@ -0,0 +1,44 @@
+// 高并发阻塞 I/O 压测：对比平台线程与虚拟线程模式下的吞吐量和延迟
+//
+// 运行方式（k6 https://k6.io）：
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERNAME=admin -e PASSWORD=password load-test/blocking-io.js
+//
+// 每个虚拟用户先登录获取 token，然后循环请求商品列表（MySQL）和用户列表（需管理员，Redis 校验 token）。
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'admin';
+const PASSWORD = __ENV.PASSWORD || 'password';
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 50,
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '30s', target: 1000 },
+                { duration: '60s', target: 2000 },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const response = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(response, { 'login ok': (r) => r.status === 200 });
+    return { token: response.json('token') };
+}
+
+export default function (data) {
+    const params = { headers: { 'X-Token': data.token } };
+    const products = http.get(`${BASE_URL}/api/products?pageNum=1&pageSize=20&includeTotal=false`, params);
+    check(products, { 'products ok': (r) => r.status === 200 });
+    const users = http.get(`${BASE_URL}/api/users?pageNum=1&pageSize=20`, params);
+    check(users, { 'users ok': (r) => r.status === 200 });
+}
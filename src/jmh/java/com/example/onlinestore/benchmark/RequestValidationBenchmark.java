@@ -0,0 +1,71 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.dto.CreateProductRequest;
+import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.dto.UserPageRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求对象单次验证的耗时
+ *
+ * Controller 参数去掉 @Valid 后，每个请求少执行一次 Spring MVC 的验证，
+ * 节省的 CPU 即为对应请求对象在这里测得的耗时。
+ *
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="RequestValidationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestValidationBenchmark {
+
+    private Validator validator;
+    private CreateProductRequest createProductRequest;
+    private ProductPageRequest productPageRequest;
+    private UserPageRequest userPageRequest;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        createProductRequest = new CreateProductRequest();
+        createProductRequest.setName("手机");
+        createProductRequest.setCategory("数码");
+        createProductRequest.setPrice(new BigDecimal("1999.00"));
+        productPageRequest = new ProductPageRequest();
+        productPageRequest.setName("手机");
+        userPageRequest = new UserPageRequest();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateProductRequest>> createProduct() {
+        return validator.validate(createProductRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ProductPageRequest>> listProducts() {
+        return validator.validate(productPageRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserPageRequest>> listUsers() {
+        return validator.validate(userPageRequest);
+    }
+}
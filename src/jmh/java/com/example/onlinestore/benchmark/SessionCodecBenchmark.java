@@ -0,0 +1,65 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.model.User;
+import com.example.onlinestore.session.BinarySessionCodec;
+import com.example.onlinestore.session.JsonSessionCodec;
+import com.example.onlinestore.session.SessionCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话编解码基准测试：对比 Jackson JSON 与紧凑二进制格式的编码、解码耗时
+ *
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="SessionCodecBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionCodecBenchmark {
+
+    @Param({"json", "binary"})
+    private String codecName;
+
+    private SessionCodec codec;
+    private User user;
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        codec = "json".equals(codecName) ? new JsonSessionCodec() : new BinarySessionCodec();
+        user = new User();
+        user.setId(10086L);
+        user.setUsername("normal_user");
+        user.setToken(UUID.randomUUID().toString());
+        user.setTokenExpireTime(LocalDateTime.now().plusDays(1).withNano(0));
+        user.setCreatedAt(LocalDateTime.now().minusDays(30));
+        user.setUpdatedAt(LocalDateTime.now());
+        payload = codec.encode(user);
+    }
+
+    @Benchmark
+    public String encode() {
+        return codec.encode(user);
+    }
+
+    @Benchmark
+    public User decode() {
+        return codec.decode(payload);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.annotation.ValidateParams;
+import com.example.onlinestore.aspect.ValidationAspect;
+import com.example.onlinestore.dto.UserPageRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 参数验证切面基准测试：对比按方法缓存验证计划的 ValidationAspect 与逐个参数验证的原实现
+ *
+ * 被测方法与 Controller 相同，包含一个带约束的请求对象和两个无约束参数，
+ * 分别测量验证通过和验证失败（需要解析本地化消息）的耗时。
+ *
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="ValidationAspectBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationAspectBenchmark {
+
+    @Param({"legacy", "plan"})
+    private String aspectName;
+
+    private Controller controller;
+    private UserPageRequest validRequest;
+    private UserPageRequest invalidRequest;
+    private HttpServletRequest servletRequest;
+
+    @Setup
+    public void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("i18n/messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        LocaleContextHolder.setLocale(Locale.SIMPLIFIED_CHINESE);
+
+        Object aspect = "legacy".equals(aspectName) ? new LegacyValidationAspect() : new ValidationAspect();
+        ReflectionTestUtils.setField(aspect, "validator", validator);
+        ReflectionTestUtils.setField(aspect, "messageSource", messageSource);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Controller());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        controller = factory.getProxy();
+
+        validRequest = new UserPageRequest();
+        invalidRequest = new UserPageRequest();
+        invalidRequest.setPageNum(0);
+        invalidRequest.setPageSize(200);
+        servletRequest = new MockHttpServletRequest();
+    }
+
+    @Benchmark
+    public Object valid() {
+        return controller.listUsers(validRequest, servletRequest, "zh-CN");
+    }
+
+    @Benchmark
+    public Object invalid() {
+        return controller.listUsers(invalidRequest, servletRequest, "zh-CN");
+    }
+
+    public static class Controller {
+        @ValidateParams
+        public Object listUsers(UserPageRequest request, HttpServletRequest servletRequest, String language) {
+            return request;
+        }
+    }
+
+    /**
+     * 优化前的实现：每次调用验证全部参数，每个错误都查询 MessageSource
+     */
+    @Aspect
+    public static class LegacyValidationAspect {
+        private static final Logger logger = LoggerFactory.getLogger(LegacyValidationAspect.class);
+
+        private Validator validator;
+        private MessageSource messageSource;
+
+        @Around("@annotation(com.example.onlinestore.annotation.ValidateParams)")
+        public Object validateParameters(ProceedingJoinPoint joinPoint) throws Throwable {
+            for (Object arg : joinPoint.getArgs()) {
+                if (arg != null) {
+                    Set<ConstraintViolation<Object>> violations = validator.validate(arg);
+                    if (!violations.isEmpty()) {
+                        String errorMessages = violations.stream()
+                            .map(violation -> messageSource.getMessage(
+                                violation.getMessage(), null, LocaleContextHolder.getLocale()))
+                            .collect(Collectors.joining(", "));
+                        logger.warn("参数验证失败: {}", errorMessages);
+                        return ResponseEntity.badRequest().body(errorMessages);
+                    }
+                }
+            }
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.onlinestore.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.example.onlinestore.aspect.AdminAuthAspect;
+import com.example.onlinestore.aspect.ValidationAspect;
+import com.example.onlinestore.cache.RolePermissionCache;
+import com.example.onlinestore.config.ValidationConfig;
+import com.example.onlinestore.config.WebGuardConfig;
+import com.example.onlinestore.context.UserContext;
+import com.example.onlinestore.controller.ProductController;
+import com.example.onlinestore.dto.CreateProductRequest;
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.ProductImportResult;
+import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.interceptor.RequireAdminInterceptor;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.model.User;
+import com.example.onlinestore.service.ProductExportService;
+import com.example.onlinestore.service.ProductImportService;
+import com.example.onlinestore.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 请求守卫基准测试：对比 web.guard.mode 为 aspect 与 interceptor 时商品接口的单次请求耗时
+ *
+ * 通过 MockMvc 走完整的 DispatcherServlet 流程（参数绑定、拦截器、Controller、JSON 序列化），
+ * 商品服务为固定返回值的桩实现，两种模式的差值即为 AOP 代理与启动扫描拦截器的开销差。
+ *
+ * 运行方式：mvn -Pjmh test-compile exec:exec -Djmh.args="WebGuardBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebGuardBenchmark {
+
+    @Param({"aspect", "interceptor"})
+    private String mode;
+
+    private AnnotationConfigWebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() throws Exception {
+        // 没有 Spring Boot 的日志配置时 logback 默认输出 DEBUG，会掩盖被测开销
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("guard",
+            Map.of("web.guard.mode", mode, "admin.auth.username", "admin")));
+        context.register(MvcConfig.class, ValidationConfig.class, RolePermissionCache.class, ProductController.class,
+            AdminAuthAspect.class, ValidationAspect.class, WebGuardConfig.class, RequireAdminInterceptor.class);
+        context.refresh();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        // 两种模式都必须走到 Controller，否则对比没有意义
+        for (MvcResult result : new MvcResult[]{listProducts(), createProduct()}) {
+            if (result.getResponse().getStatus() != 200) {
+                throw new IllegalStateException(mode + " 模式请求失败: " + result.getResponse().getStatus());
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult listProducts() throws Exception {
+        return mockMvc.perform(get("/api/products").param("pageNum", "1").param("pageSize", "10")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createProduct() throws Exception {
+        return mockMvc.perform(post("/api/products")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\":\"手机\",\"category\":\"数码\",\"price\":1999.00}")).andReturn();
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    public static class MvcConfig implements WebMvcConfigurer {
+
+        @Autowired
+        private ObjectProvider<RequireAdminInterceptor> requireAdminInterceptor;
+
+        @Bean
+        public MessageSource messageSource() {
+            ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+            messageSource.setBasenames("i18n/messages");
+            messageSource.setDefaultEncoding("UTF-8");
+            return messageSource;
+        }
+
+        @Bean
+        public ProductService productService() {
+            return new ProductService() {
+                @Override
+                public Product createProduct(CreateProductRequest request) {
+                    Product product = new Product();
+                    product.setId(1L);
+                    product.setName(request.getName());
+                    product.setPrice(request.getPrice());
+                    return product;
+                }
+
+                @Override
+                public PageResponse<Product> listProducts(ProductPageRequest request) {
+                    PageResponse<Product> response = new PageResponse<>();
+                    response.setRecords(List.of());
+                    response.setPageNum(request.getPageNum());
+                    response.setPageSize(request.getPageSize());
+                    return response;
+                }
+            };
+        }
+
+        @Bean
+        public ProductImportService productImportService() {
+            return (reader, format) -> new ProductImportResult();
+        }
+
+        @Bean
+        public ProductExportService productExportService() {
+            return (format, output) -> 0;
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            // 代替 AuthInterceptor，以管理员身份访问
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                    User admin = new User();
+                    admin.setUsername("admin");
+                    UserContext.setCurrentUser(admin);
+                    return true;
+                }
+
+                @Override
+                public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                            Object handler, Exception ex) {
+                    UserContext.clear();
+                }
+            });
+            requireAdminInterceptor.ifAvailable(registry::addInterceptor);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.onlinestore.annotation;
 
+import com.example.onlinestore.model.Permission;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -8,4 +10,9 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RequireAdmin {
-} 
\ No newline at end of file
+
+    /**
+     * 访问该接口需要的权限，默认需要管理员权限
+     */
+    Permission value() default Permission.ADMIN;
+}
@@ -1,6 +1,9 @@
 package com.example.onlinestore.aspect;
 
+import com.example.onlinestore.annotation.RequireAdmin;
+import com.example.onlinestore.cache.RolePermissionCache;
 import com.example.onlinestore.context.UserContext;
+import com.example.onlinestore.model.Permission;
 import com.example.onlinestore.model.User;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
@@ -8,6 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
@@ -16,19 +20,27 @@ import org.springframework.stereotype.Component;
  * 管理员权限验证切面
  * 
  * 该切面用于处理带有 @RequireAdmin 注解的方法的权限验证。
- * 它会检查当前用户是否为管理员，如果不是，将抛出异常并返回本地化的错误消息。
+ * 它会检查当前用户是否为管理员，或者拥有注解指定的权限，如果不是，将抛出异常并返回本地化的错误消息。
+ * 权限来自登录时写入会话的权限位图（见 RolePermissionCache），检查时不查询数据库或 Redis。
+ * 
+ * web.guard.mode 为 interceptor 时不注册该切面，由 RequireAdminInterceptor 检查权限。
  * 
  * 配置示例：
  * <pre>
  * admin:
  *   auth:
  *     username: admin
+ * security:
+ *   roles:
+ *     operator: PRODUCT_WRITE
+ *   user-roles:
+ *     alice: operator
  * </pre>
  * 
  * 使用示例：
  * <pre>
  * {@code
- * @RequireAdmin
+ * @RequireAdmin(Permission.PRODUCT_WRITE)
  * public ResponseEntity<?> adminOnlyMethod() {
  *     // 方法实现
  * }
@@ -37,6 +49,7 @@ import org.springframework.stereotype.Component;
  */
 @Aspect
 @Component
+@ConditionalOnProperty(name = "web.guard.mode", havingValue = "aspect", matchIfMissing = true)
 public class AdminAuthAspect {
     private static final Logger logger = LoggerFactory.getLogger(AdminAuthAspect.class);
 
@@ -46,26 +59,35 @@ public class AdminAuthAspect {
     @Autowired
     private MessageSource messageSource;
 
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
     /**
-     * 检查当前用户是否具有管理员权限
-     * 
-     * @throws IllegalArgumentException 如果用户未登录或不是管理员
+     * 检查当前用户是否具有接口要求的权限
+     *
+     * @throws IllegalArgumentException 如果用户未登录或没有权限
      */
-    @Before("@annotation(com.example.onlinestore.annotation.RequireAdmin)")
-    public void checkAdminAuth() {
+    @Before(value = "@annotation(requireAdmin)", argNames = "requireAdmin")
+    public void checkAdminAuth(RequireAdmin requireAdmin) {
+        checkPermission(requireAdmin.value());
+    }
+
+    private void checkPermission(Permission permission) {
         User currentUser = UserContext.getCurrentUser();
         if (currentUser == null) {
             logger.warn("访问被拒绝：未登录用户尝试访问管理员接口");
             throw new IllegalArgumentException(messageSource.getMessage(
                 "error.access.denied", null, LocaleContextHolder.getLocale()));
         }
-        
-        if (!adminUsername.equals(currentUser.getUsername())) {
-            logger.warn("访问被拒绝：非管理员用户 {} 尝试访问管理员接口", currentUser.getUsername());
+
+        // 配置的管理员直接放行，其余用户检查会话中的权限位图
+        if (!adminUsername.equals(currentUser.getUsername())
+                && !rolePermissionCache.hasPermission(currentUser, permission)) {
+            logger.warn("访问被拒绝：用户 {} 没有 {} 权限", currentUser.getUsername(), permission);
             throw new IllegalArgumentException(messageSource.getMessage(
                 "error.access.denied", null, LocaleContextHolder.getLocale()));
         }
-        
-        logger.debug("管理员 {} 访问接口成功", currentUser.getUsername());
+
+        logger.debug("用户 {} 访问接口成功", currentUser.getUsername());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package com.example.onlinestore.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * 已验证凭证缓存
+ *
+ * user-service 认证通过后，在短时间内记住该用户名与密码的组合，客户端重试或多设备登录时
+ * 直接在本地验证，不再调用 /auth：
+ * <ul>
+ *   <li>只保存密码的 PBKDF2 摘要，盐值为进程启动时随机生成，不落盘、不跨节点共享</li>
+ *   <li>只缓存认证成功的结果，条目在 ttl 后过期，用户在 user-service 修改密码后最多延迟 ttl 生效</li>
+ *   <li>默认关闭，需显式开启</li>
+ * </ul>
+ *
+ * 配置示例：
+ * <pre>
+ * service:
+ *   user:
+ *     credential-cache:
+ *       enabled: true
+ *       ttl: 60s
+ *       max-size: 10000
+ *       iterations: 10000
+ * </pre>
+ */
+@Component
+public class CredentialCache {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int KEY_LENGTH = 256;
+
+    @Value("${service.user.credential-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${service.user.credential-cache.ttl:60s}")
+    private Duration ttl;
+
+    @Value("${service.user.credential-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${service.user.credential-cache.iterations:10000}")
+    private int iterations;
+
+    private final byte[] salt = new byte[16];
+
+    private final ExpiringEntries<Entry> entries = new ExpiringEntries<>(entry -> entry.expiresAt);
+
+    public CredentialCache() {
+        new SecureRandom().nextBytes(salt);
+    }
+
+    /**
+     * 判断用户名与密码是否在有效期内验证通过过
+     */
+    public boolean isVerified(String username, String password) {
+        if (!enabled || username == null || password == null) {
+            return false;
+        }
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(entry.digest, digest(username, password));
+    }
+
+    /**
+     * 记录认证通过的用户名与密码
+     */
+    public void markVerified(String username, String password) {
+        if (!enabled || username == null || password == null) {
+            return;
+        }
+        entries.put(username, new Entry(digest(username, password), System.currentTimeMillis() + ttl.toMillis()), maxSize);
+    }
+
+    /**
+     * 删除用户的缓存条目
+     */
+    public void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    private byte[] digest(String username, String password) {
+        byte[] user = username.getBytes(StandardCharsets.UTF_8);
+        byte[] userSalt = new byte[salt.length + user.length];
+        System.arraycopy(salt, 0, userSalt, 0, salt.length);
+        System.arraycopy(user, 0, userSalt, salt.length, user.length);
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), userSalt, iterations, KEY_LENGTH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("计算凭证摘要失败", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] digest;
+        private final long expiresAt;
+
+        private Entry(byte[] digest, long expiresAt) {
+            this.digest = digest;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
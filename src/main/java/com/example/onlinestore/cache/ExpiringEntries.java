@@ -0,0 +1,63 @@
+package com.example.onlinestore.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * 带过期时间与容量上限的本地条目表，供 TokenCache 和 CredentialCache 使用
+ *
+ * 读取时删除已过期的条目；写入时达到容量上限则先清理过期条目，仍然超出时再淘汰部分条目
+ */
+final class ExpiringEntries<V> {
+
+    private final Map<String, V> entries = new ConcurrentHashMap<>();
+
+    // 条目的过期时间（毫秒时间戳）
+    private final ToLongFunction<V> expiresAt;
+
+    ExpiringEntries(ToLongFunction<V> expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return 未缓存或已过期时返回 null
+     */
+    V get(String key) {
+        V entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= expiresAt.applyAsLong(entry)) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    void put(String key, V entry, int maxSize) {
+        if (entries.size() >= maxSize) {
+            evict(maxSize);
+        }
+        entries.put(key, entry);
+    }
+
+    void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 先清理过期条目，仍然超出容量时再淘汰部分条目
+     */
+    private void evict(int maxSize) {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> now >= expiresAt.applyAsLong(entry));
+        Iterator<String> iterator = entries.keySet().iterator();
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
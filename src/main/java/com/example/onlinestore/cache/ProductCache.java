@@ -0,0 +1,320 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 商品本地缓存
+ *
+ * 线程安全的有界缓存：按 id 读取走 ConcurrentHashMap，列表查询读取按 (created_at DESC, id DESC)
+ * 排好序的 {@link ProductCatalog} 快照，名称查询走 n-gram 倒排索引，三者都无需加锁；
+ * 写入在锁内维护插入顺序、倒排索引并发布新快照，超出容量后按 FIFO 顺序淘汰最早加入的商品。命中、未命中、淘汰次数以及当前大小
+ * 通过 Micrometer 注册到 actuator 的 /actuator/metrics 下。
+ *
+ * 启动后由 ProductCacheWarmup 在后台通过 {@link #load(Collection)} 预热，预热完成前缓存不参与列表查询。
+ * 其他节点写入的商品由 ProductChangeFeed 通过 {@link #apply(Collection, long)} 按版本号加入。
+ *
+ * 配置示例：
+ * <pre>
+ * product:
+ *   cache:
+ *     capacity: 1000
+ * </pre>
+ */
+@Component
+public class ProductCache {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCache.class);
+
+    @Value("${product.cache.capacity:1000}")
+    protected int capacity;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Product> products = new ConcurrentHashMap<>();
+
+    /**
+     * 插入顺序，仅在 writeLock 内访问
+     */
+    private final Deque<Long> insertionOrder = new ArrayDeque<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 每个商品最近一次应用的变更版本号，仅在 writeLock 内访问
+     */
+    private final Map<Long, Long> versions = new HashMap<>();
+
+    /**
+     * 排序快照，仅在 writeLock 内替换
+     */
+    private volatile ProductCatalog catalog = ProductCatalog.empty();
+
+    /**
+     * 是否已从数据库完成预热
+     */
+    private volatile boolean loaded;
+
+    private final ProductNameIndex nameIndex = new ProductNameIndex();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        FunctionCounter.builder("product.cache.hits", hits, LongAdder::sum)
+            .description("商品缓存命中次数")
+            .register(meterRegistry);
+        FunctionCounter.builder("product.cache.misses", misses, LongAdder::sum)
+            .description("商品缓存未命中次数")
+            .register(meterRegistry);
+        FunctionCounter.builder("product.cache.evictions", evictions, LongAdder::sum)
+            .description("商品缓存淘汰次数")
+            .register(meterRegistry);
+        Gauge.builder("product.cache.size", products, Map::size)
+            .description("商品缓存当前大小")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 按 id 读取缓存，并记录命中或未命中
+     *
+     * @param id 商品id
+     * @return 缓存的商品，不存在时返回 null
+     */
+    public Product get(Long id) {
+        Product product = products.get(id);
+        if (product == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return product;
+    }
+
+    /**
+     * 加入缓存，已存在的商品只更新内容、不改变淘汰顺序
+     *
+     * @param product 商品信息，id 不能为空
+     */
+    public void put(Product product) {
+        writeLock.lock();
+        try {
+            Product previous = products.put(product.getId(), product);
+            catalog = catalog.with(previous, product);
+            reindex(previous, product);
+            if (previous == null) {
+                insertionOrder.addLast(product.getId());
+                evictLocked(true);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 按集合的迭代顺序批量加入缓存
+     *
+     * @param batch 商品列表，先出现的商品会先被淘汰
+     */
+    public void putAll(Collection<Product> batch) {
+        writeLock.lock();
+        try {
+            for (Product product : batch) {
+                Product previous = products.put(product.getId(), product);
+                reindex(previous, product);
+                if (previous == null) {
+                    insertionOrder.addLast(product.getId());
+                }
+            }
+            evictLocked(false);
+            catalog = ProductCatalog.of(products.values());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 预热时加入从数据库读取的商品，并将缓存标记为已加载
+     *
+     * 预热期间新创建的商品已经通过 {@link #put(Product)} 加入缓存，它们比预热读到的商品更新：
+     * 同一商品保留缓存中的版本，预热的商品排在它们之前，先被淘汰。
+     *
+     * @param batch 按创建时间从旧到新排列的商品
+     */
+    public void load(Collection<Product> batch) {
+        writeLock.lock();
+        try {
+            Deque<Long> order = new ArrayDeque<>(batch.size() + insertionOrder.size());
+            for (Product product : batch) {
+                if (products.putIfAbsent(product.getId(), product) == null) {
+                    nameIndex.add(product.getId(), product.getName());
+                    order.addLast(product.getId());
+                }
+            }
+            order.addAll(insertionOrder);
+            insertionOrder.clear();
+            insertionOrder.addAll(order);
+            evictLocked(false);
+            catalog = ProductCatalog.of(products.values());
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 应用一条商品变更，版本号不高于已应用版本的商品会被忽略
+     *
+     * @param batch 变更的商品，按创建时间从旧到新排列
+     * @param version 变更的全局版本号
+     */
+    public void apply(Collection<Product> batch, long version) {
+        writeLock.lock();
+        try {
+            for (Product product : batch) {
+                Long applied = versions.get(product.getId());
+                if (applied != null && applied >= version) {
+                    continue;
+                }
+                versions.put(product.getId(), version);
+                Product previous = products.put(product.getId(), product);
+                reindex(previous, product);
+                if (previous == null) {
+                    insertionOrder.addLast(product.getId());
+                }
+            }
+            evictLocked(false);
+            catalog = ProductCatalog.of(products.values());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void evictLocked(boolean updateCatalog) {
+        while (insertionOrder.size() > capacity) {
+            Long eldest = insertionOrder.pollFirst();
+            Product removed = products.remove(eldest);
+            versions.remove(eldest);
+            nameIndex.remove(removed.getId(), removed.getName());
+            if (updateCatalog) {
+                catalog = catalog.without(removed);
+            }
+            evictions.increment();
+            logger.info("商品缓存容量超出限制，淘汰最早加入的商品: {}", eldest);
+        }
+    }
+
+    private void reindex(Product previous, Product product) {
+        if (previous != null) {
+            nameIndex.remove(previous.getId(), previous.getName());
+        }
+        nameIndex.add(product.getId(), product.getName());
+    }
+
+    /**
+     * 按名称查询，返回名称包含关键字（不区分大小写）的商品，
+     * 结果按 (created_at DESC, id DESC) 排序，与数据库 LIKE 查询一致
+     *
+     * @param keyword 名称关键字
+     */
+    public List<Product> searchByName(String keyword) {
+        String normalized = ProductNameIndex.normalize(keyword);
+        if (normalized.isEmpty()) {
+            return catalog.all();
+        }
+        List<Product> matched = new ArrayList<>();
+        for (Long id : nameIndex.candidates(normalized)) {
+            Product product = products.get(id);
+            if (product != null && ProductNameIndex.normalize(product.getName()).contains(normalized)) {
+                matched.add(product);
+            }
+        }
+        matched.sort(ProductCatalog.ORDER);
+        return matched;
+    }
+
+    /**
+     * 按名称和分类查询，名称规则同 {@link #searchByName(String)}，分类不区分大小写完全匹配
+     *
+     * @param keyword 名称关键字，可以为空
+     * @param category 分类，可以为空
+     */
+    public List<Product> search(String keyword, String category) {
+        if (category == null || category.isEmpty()) {
+            return searchByName(keyword);
+        }
+        if (ProductNameIndex.normalize(keyword).isEmpty()) {
+            return catalog.category(category);
+        }
+        // 名称倒排索引的候选集通常远小于一个分类，先按名称查询再过滤分类
+        String key = ProductCatalog.categoryKey(category);
+        List<Product> matched = new ArrayList<>();
+        for (Product product : searchByName(keyword)) {
+            if (ProductCatalog.categoryKey(product.getCategory()).equals(key)) {
+                matched.add(product);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 返回当前的排序快照，调用方可以无锁地多次读取同一个快照
+     */
+    public ProductCatalog catalog() {
+        return catalog;
+    }
+
+    /**
+     * 记录一次由缓存完成的查询
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * 记录一次回退到数据库的查询
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean isEmpty() {
+        return products.isEmpty();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
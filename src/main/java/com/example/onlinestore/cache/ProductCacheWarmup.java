@@ -0,0 +1,209 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 商品缓存预热
+ *
+ * 应用启动完成后在后台线程中从数据库流式读取最新的 capacity 个商品并加入缓存，请求线程不会等待预热：
+ * 预热完成前列表查询直接走数据库。预热状态以健康检查 productCacheWarmup 的形式加入 readiness 探针，
+ * 预热完成前为 OUT_OF_SERVICE，负载均衡不会把流量导向尚未预热的节点。数据库不可用时按 retry-delay 重试。
+ * 根路径 /actuator/health 也会包含该检查，通过 status.order 使其在根路径不影响汇总状态，见配置示例。
+ *
+ * 预热的范围即 {@link ProductCache#getCapacity()}：缓存只有在容纳全部商品时才参与列表查询，
+ * 因此预热最新的商品，而不是按访问频率挑选。
+ *
+ * ProductChangeFeed 发现漏收变更消息时通过 {@link #resync()} 重新读取一次，补齐缺失的商品。
+ *
+ * 预热进度通过 Micrometer 暴露：product.cache.warmup.rows（已读取的行数）、
+ * product.cache.warmup.ready（是否完成）、product.cache.warmup.duration（耗时）。
+ *
+ * 配置示例：
+ * <pre>
+ * product:
+ *   cache:
+ *     warmup:
+ *       retry-delay: 10s
+ * management:
+ *   endpoint:
+ *     health:
+ *       status:
+ *         order: down,up,out-of-service,unknown
+ *       group:
+ *         readiness:
+ *           include: readinessState,productCacheWarmup
+ *           status:
+ *             order: down,out-of-service,up,unknown
+ * </pre>
+ */
+@Component
+public class ProductCacheWarmup implements HealthIndicator, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheWarmup.class);
+
+    @Value("${product.cache.warmup.retry-delay:10s}")
+    private Duration retryDelay;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong rows = new AtomicLong();
+
+    private volatile Throwable lastFailure;
+
+    private volatile Thread worker;
+
+    private final AtomicBoolean resyncing = new AtomicBoolean();
+
+    /**
+     * 有尚未执行的重新同步请求：请求时预热或上一次重新同步可能已读取过数据库，不能直接忽略
+     */
+    private volatile boolean resyncPending;
+
+    @PostConstruct
+    public void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("product.cache.warmup.rows", rows, AtomicLong::get)
+            .description("商品缓存预热已读取的行数")
+            .register(meterRegistry);
+        Gauge.builder("product.cache.warmup.ready", productCache, cache -> cache.isLoaded() ? 1 : 0)
+            .description("商品缓存是否已完成预热")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 应用启动完成后开始后台预热
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::run, "product-cache-warmup");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    private void run() {
+        while (!productCache.isLoaded() && !Thread.currentThread().isInterrupted()) {
+            try {
+                warmUp();
+                lastFailure = null;
+            } catch (RuntimeException e) {
+                lastFailure = e;
+                logger.error("商品缓存预热失败，{} 后重试", retryDelay, e);
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (productCache.isLoaded() && resyncPending) {
+            resync();
+        }
+    }
+
+    /**
+     * 在后台重新读取最新的商品并合并到缓存
+     *
+     * 尚未完成预热或已有重新同步在进行中时记下请求，待其完成后再读取一次。
+     */
+    public void resync() {
+        resyncPending = true;
+        if (!productCache.isLoaded() || !resyncing.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                do {
+                    resyncPending = false;
+                    warmUp();
+                } while (resyncPending);
+            } catch (RuntimeException e) {
+                logger.error("商品缓存重新同步失败", e);
+            } finally {
+                resyncing.set(false);
+            }
+            // 退出循环后又有请求时重新调度
+            if (resyncPending) {
+                resync();
+            }
+        }, "product-cache-resync");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 从数据库读取最新的商品并加入缓存
+     */
+    void warmUp() {
+        long start = System.nanoTime();
+        rows.set(0);
+        List<Product> newest = new ArrayList<>();
+        productMapper.scanNewest(productCache.getCapacity(), context -> {
+            newest.add(context.getResultObject());
+            rows.incrementAndGet();
+        });
+        // 按创建时间从旧到新加入以保证淘汰顺序
+        Collections.reverse(newest);
+        productCache.load(newest);
+
+        long elapsed = System.nanoTime() - start;
+        if (meterRegistry != null) {
+            Timer.builder("product.cache.warmup.duration")
+                .description("商品缓存预热耗时")
+                .register(meterRegistry)
+                .record(Duration.ofNanos(elapsed));
+        }
+        logger.info("商品缓存预热完成，共 {} 条记录，耗时 {} ms", newest.size(), Duration.ofNanos(elapsed).toMillis());
+    }
+
+    @Override
+    public Health health() {
+        if (productCache.isLoaded()) {
+            return Health.up().withDetail("size", productCache.size()).build();
+        }
+        Health.Builder builder = Health.outOfService().withDetail("rows", rows.get());
+        Throwable failure = lastFailure;
+        if (failure != null) {
+            builder.withDetail("error", failure.getClass().getName() + ": " + failure.getMessage());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void destroy() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 商品目录快照
+ *
+ * 按 (created_at DESC, id DESC) 排好序的不可变数组，与 ProductMapper 的 ORDER BY 保持一致，
+ * 保证缓存与数据库两条查询路径返回相同的分页结果。快照发布后不再修改，读线程可以无锁访问；
+ * 写入时由 ProductCache 生成新的快照替换旧快照。
+ *
+ * 快照同时按分类保存同样排序的子数组，分类不区分大小写、区分重音，与 products.category 列的
+ * utf8mb4_0900_as_ci 排序规则下的 category = ? 一致。
+ *
+ * 价格区间与按价格排序由 {@link ProductPriceIndex} 完成，全量快照的价格索引在第一次按价格查询时构建，
+ * 之后由同一快照的所有查询共享；快照替换后随旧快照一起丢弃。
+ *
+ * 总数与分类查询为 O(1)，按偏移量分页为 O(1)，按 (created_at, id) 游标分页为 O(log n)，
+ * 价格区间定位为 O(log n)。
+ */
+public final class ProductCatalog {
+
+    /**
+     * 与 ProductMapper 中 ORDER BY created_at DESC, id DESC 一致的排序规则
+     */
+    public static final Comparator<Product> ORDER = Comparator
+        .comparing(Product::getCreatedAt, Comparator.reverseOrder())
+        .thenComparing(Product::getId, Comparator.reverseOrder());
+
+    private static final Product[] NONE = new Product[0];
+
+    private static final ProductCatalog EMPTY = new ProductCatalog(NONE, Collections.emptyMap());
+
+    private final Product[] sorted;
+
+    /**
+     * 分类（小写）到该分类商品的映射，数组排序与 sorted 相同
+     */
+    private final Map<String, Product[]> categories;
+
+    /**
+     * 全量快照的价格索引，按需构建；并发构建时各自得到相同的索引，不需要加锁
+     */
+    private volatile ProductPriceIndex priceIndex;
+
+    private ProductCatalog(Product[] sorted, Map<String, Product[]> categories) {
+        this.sorted = sorted;
+        this.categories = categories;
+    }
+
+    public static ProductCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 由任意顺序的商品集合构建快照
+     */
+    public static ProductCatalog of(Collection<Product> products) {
+        Product[] array = products.toArray(NONE);
+        Arrays.sort(array, ORDER);
+        Map<String, List<Product>> grouped = new HashMap<>();
+        for (Product product : array) {
+            grouped.computeIfAbsent(categoryKey(product.getCategory()), key -> new ArrayList<>()).add(product);
+        }
+        Map<String, Product[]> categories = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, members) -> categories.put(key, members.toArray(NONE)));
+        return new ProductCatalog(array, categories);
+    }
+
+    /**
+     * 返回加入（或替换同 id 的）商品后的新快照
+     *
+     * @param previous 被替换的旧商品，没有时为 null
+     * @param product 新商品
+     */
+    public ProductCatalog with(Product previous, Product product) {
+        ProductCatalog base = previous == null ? this : without(previous);
+        String key = categoryKey(product.getCategory());
+        Map<String, Product[]> categories = new HashMap<>(base.categories);
+        categories.put(key, insert(base.categories.getOrDefault(key, NONE), product));
+        return new ProductCatalog(insert(base.sorted, product), categories);
+    }
+
+    /**
+     * 返回移除指定商品后的新快照，商品不存在时返回自身
+     */
+    public ProductCatalog without(Product product) {
+        int index = Arrays.binarySearch(sorted, product, ORDER);
+        if (index < 0) {
+            return this;
+        }
+        // 以快照中的商品为准，它的分类可能与传入的版本不同
+        Product existing = sorted[index];
+        String key = categoryKey(existing.getCategory());
+        Map<String, Product[]> categories = new HashMap<>(this.categories);
+        Product[] members = remove(categories.get(key), Arrays.binarySearch(categories.get(key), existing, ORDER));
+        if (members.length == 0) {
+            categories.remove(key);
+        } else {
+            categories.put(key, members);
+        }
+        return new ProductCatalog(remove(sorted, index), categories);
+    }
+
+    private static Product[] insert(Product[] base, Product product) {
+        int index = Arrays.binarySearch(base, product, ORDER);
+        int insertAt = index >= 0 ? index : -index - 1;
+        Product[] next = new Product[base.length + 1];
+        System.arraycopy(base, 0, next, 0, insertAt);
+        next[insertAt] = product;
+        System.arraycopy(base, insertAt, next, insertAt + 1, base.length - insertAt);
+        return next;
+    }
+
+    private static Product[] remove(Product[] base, int index) {
+        Product[] next = new Product[base.length - 1];
+        System.arraycopy(base, 0, next, 0, index);
+        System.arraycopy(base, index + 1, next, index, base.length - index - 1);
+        return next;
+    }
+
+    static String categoryKey(String category) {
+        return category == null ? "" : category.toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return sorted.length;
+    }
+
+    /**
+     * 按偏移量截取一页
+     */
+    public List<Product> page(int offset, int limit) {
+        return page(all(), offset, limit);
+    }
+
+    /**
+     * 从游标 (createdAt, id) 之后开始截取一页，游标本身不包含在结果中
+     */
+    public List<Product> after(LocalDateTime createdAt, Long id, int limit) {
+        return after(all(), createdAt, id, limit);
+    }
+
+    /**
+     * 按排序顺序返回指定分类（不区分大小写）的商品
+     */
+    public List<Product> category(String category) {
+        Product[] members = categories.get(categoryKey(category));
+        return members == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(members));
+    }
+
+    /**
+     * 价格区间内的全部商品
+     *
+     * @param min 价格下限（包含），为 null 时不限
+     * @param max 价格上限（包含），为 null 时不限
+     * @param byPrice 是否按价格排序；否则按 {@link #ORDER} 排序
+     * @param descending 按价格排序时是否从高到低
+     */
+    public List<Product> priceRange(BigDecimal min, BigDecimal max, boolean byPrice, boolean descending) {
+        ProductPriceIndex index = priceIndex;
+        if (index == null) {
+            index = ProductPriceIndex.of(sorted);
+            priceIndex = index;
+        }
+        return priceRange(index, min, max, byPrice, descending);
+    }
+
+    /**
+     * 按排序顺序返回全部商品
+     */
+    public List<Product> all() {
+        return Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    /**
+     * 对已按 {@link #ORDER} 排序的列表按偏移量截取一页
+     */
+    public static List<Product> page(List<Product> sorted, int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), sorted.size());
+        int to = (int) Math.min((long) from + limit, sorted.size());
+        return new ArrayList<>(sorted.subList(from, to));
+    }
+
+    /**
+     * 对已按 {@link #ORDER} 排序的列表从游标之后截取一页
+     */
+    public static List<Product> after(List<Product> sorted, LocalDateTime createdAt, Long id, int limit) {
+        Product key = new Product();
+        key.setCreatedAt(createdAt);
+        key.setId(id);
+        int index = Collections.binarySearch(sorted, key, ORDER);
+        int start = index >= 0 ? index + 1 : -index - 1;
+        return page(sorted, start, limit);
+    }
+
+    /**
+     * 对已按 {@link #ORDER} 排序的列表（名称或分类的查询结果）按价格区间过滤并排序，参数同
+     * {@link #priceRange(BigDecimal, BigDecimal, boolean, boolean)}
+     */
+    public static List<Product> priceRange(List<Product> sorted, BigDecimal min, BigDecimal max,
+                                           boolean byPrice, boolean descending) {
+        return priceRange(ProductPriceIndex.of(sorted.toArray(NONE)), min, max, byPrice, descending);
+    }
+
+    private static List<Product> priceRange(ProductPriceIndex index, BigDecimal min, BigDecimal max,
+                                            boolean byPrice, boolean descending) {
+        long minCents = ProductPriceIndex.minCents(min);
+        long maxCents = ProductPriceIndex.maxCents(max);
+        return byPrice
+            ? index.byPrice(minCents, maxCents, descending)
+            : index.inCreatedOrder(minCents, maxCents);
+    }
+}
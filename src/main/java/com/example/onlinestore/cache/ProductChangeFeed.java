@@ -0,0 +1,209 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 商品变更广播
+ *
+ * 多个节点各自维护商品本地缓存，某个节点写入商品后通过 Redis 频道 {@value #CHANNEL} 广播变更，
+ * 所有节点（包括自己）收到后按版本号加入本地缓存：
+ * <ul>
+ *   <li>版本号由 Redis 计数器 {@value #VERSION_KEY} 生成，递增与发布在同一个 Lua 脚本中执行，
+ *       因此各节点收到消息的顺序与版本号顺序一致</li>
+ *   <li>同一商品只应用比已应用版本更新的变更</li>
+ *   <li>发布/订阅不保证送达，收到的版本号不连续时说明漏收了消息，由 ProductCacheWarmup 重新读取一次</li>
+ *   <li>订阅建立后通过 {@link #subscribed()} 以当前版本号为起点并重新读取一次，
+ *       补齐预热读取之后、订阅建立之前发布的变更</li>
+ *   <li>发布失败时（Redis 不可用）在后台按 retry-delay 重试，Redis 恢复后跳过一个版本号发布空变更，
+ *       各节点因版本号不连续而重新读取</li>
+ * </ul>
+ * 变更在写入事务提交后发布。
+ *
+ * 配置示例：
+ * <pre>
+ * product:
+ *   change-feed:
+ *     retry-delay: 5s
+ * </pre>
+ */
+@Component
+public class ProductChangeFeed implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    public static final String CHANNEL = "product:changes";
+
+    public static final String VERSION_KEY = "product:version";
+
+    /**
+     * 递增版本号并发布带版本号的消息，消息格式为 "版本号:JSON"
+     */
+    private static final RedisScript<Long> PUBLISH = new DefaultRedisScript<>(
+        "local version = redis.call('incr', KEYS[1]) "
+            + "redis.call('publish', ARGV[1], version .. ':' .. ARGV[2]) return version",
+        Long.class);
+
+    @Value("${product.change-feed.retry-delay:5s}")
+    private Duration retryDelay;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductCacheWarmup productCacheWarmup;
+
+    /**
+     * 最近一次收到的版本号，-1 表示尚未收到过消息且尚未订阅，此时无法判断是否漏收
+     */
+    private long lastVersion = -1;
+
+    /**
+     * 有发布失败、尚未通知其他节点重新同步
+     */
+    private volatile boolean gapPending;
+
+    private final AtomicBoolean retrying = new AtomicBoolean();
+
+    /**
+     * 在当前事务提交后广播商品变更；没有事务时立即广播
+     *
+     * @param products 变更的商品，按创建时间从旧到新排列
+     */
+    public void publish(Collection<Product> products) {
+        List<Product> batch = new ArrayList<>(products);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublish(batch);
+                }
+            });
+        } else {
+            doPublish(batch);
+        }
+    }
+
+    private void doPublish(List<Product> batch) {
+        try {
+            String payload = objectMapper.writeValueAsString(batch);
+            Long version = redisTemplate.execute(PUBLISH, Collections.singletonList(VERSION_KEY), CHANNEL, payload);
+            logger.debug("广播商品变更，版本号：{}，商品数：{}", version, batch.size());
+        } catch (Exception e) {
+            logger.warn("广播商品变更失败，Redis 恢复后通知其他节点重新同步", e);
+            scheduleGapNotice();
+        }
+    }
+
+    /**
+     * 在后台重试，直到成功发布一次版本号不连续的空变更
+     */
+    private void scheduleGapNotice() {
+        gapPending = true;
+        if (!retrying.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(this::noticeGap, "product-change-feed-retry");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void noticeGap() {
+        try {
+            while (gapPending) {
+                Thread.sleep(retryDelay.toMillis());
+                gapPending = false;
+                try {
+                    // 跳过一个版本号，收到后续消息的节点都会发现版本号不连续
+                    redisTemplate.opsForValue().increment(VERSION_KEY);
+                    Long version = redisTemplate.execute(PUBLISH, Collections.singletonList(VERSION_KEY), CHANNEL, "[]");
+                    logger.info("已通知各节点重新同步商品缓存，版本号：{}", version);
+                } catch (Exception e) {
+                    gapPending = true;
+                    logger.warn("通知各节点重新同步失败，{} 后重试: {}", retryDelay, e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            retrying.set(false);
+        }
+        // 退出循环后又有发布失败时重新调度
+        if (gapPending) {
+            scheduleGapNotice();
+        }
+    }
+
+    /**
+     * 订阅建立后调用：以 Redis 中的当前版本号为起点，并重新读取一次商品，补齐订阅建立之前发布的变更
+     */
+    public void subscribed() {
+        String current;
+        try {
+            current = redisTemplate.opsForValue().get(VERSION_KEY);
+        } catch (Exception e) {
+            logger.warn("读取商品变更版本号失败: {}", e.getMessage());
+            current = null;
+        }
+        long version = current == null ? 0 : Long.parseLong(current);
+        synchronized (this) {
+            lastVersion = Math.max(lastVersion, version);
+        }
+        productCacheWarmup.resync();
+    }
+
+    /**
+     * 处理各节点广播的商品变更
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        long version;
+        Product[] products;
+        try {
+            version = Long.parseLong(body.substring(0, separator));
+            products = objectMapper.readValue(body.substring(separator + 1), Product[].class);
+        } catch (Exception e) {
+            logger.warn("无法解析商品变更消息，忽略: {}", e.getMessage());
+            return;
+        }
+
+        boolean missed;
+        synchronized (this) {
+            missed = lastVersion >= 0 && version > lastVersion + 1;
+            lastVersion = Math.max(lastVersion, version);
+        }
+        productCache.apply(List.of(products), version);
+        if (missed) {
+            logger.warn("商品变更版本号不连续，可能漏收了消息，重新同步商品缓存，当前版本号：{}", version);
+            productCacheWarmup.resync();
+        }
+    }
+}
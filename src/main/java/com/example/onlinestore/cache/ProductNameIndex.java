@@ -0,0 +1,101 @@
+package com.example.onlinestore.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 商品名称倒排索引
+ *
+ * 对小写后的商品名称建立一元和二元 n-gram 倒排表：单字符查询直接读取一元倒排表，
+ * 更长的查询取各二元组倒排表的交集作为候选集。候选集只是必要条件，调用方仍需用
+ * contains 校验，以保证结果与数据库 LIKE '%name%'（name 列为 utf8mb4_0900_as_ci，区分重音、不区分大小写）一致。
+ *
+ * 写操作由 ProductCache 在写锁内串行调用；倒排表使用并发集合，读操作无需加锁。
+ */
+class ProductNameIndex {
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * 将商品名称加入索引
+     */
+    void add(Long id, String name) {
+        for (String gram : grams(normalize(name))) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * 从索引中移除商品名称
+     */
+    void remove(Long id, String name) {
+        for (String gram : grams(normalize(name))) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * 返回名称可能包含关键字的商品id
+     *
+     * @param keyword 已经小写的关键字，不能为空
+     */
+    Set<Long> candidates(String keyword) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : queryGrams(keyword)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new LinkedHashSet<>();
+        for (Long id : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String name) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i < name.length(); i++) {
+            grams.add(name.substring(i, i + 1));
+            if (i + 2 <= name.length()) {
+                grams.add(name.substring(i, i + 2));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> queryGrams(String keyword) {
+        if (keyword.length() == 1) {
+            return Collections.singleton(keyword);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 2 <= keyword.length(); i++) {
+            grams.add(keyword.substring(i, i + 2));
+        }
+        return grams;
+    }
+}
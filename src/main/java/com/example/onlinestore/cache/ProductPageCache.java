@@ -0,0 +1,342 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 商品分页结果的 Redis 共享缓存
+ *
+ * 本地缓存无法容纳全部商品时，列表查询走数据库；热门页面（首页、常用名称过滤）在所有节点之间共享一份查询结果，
+ * key 为 product:page:&lt;排序&gt;:&lt;offset&gt;:&lt;limit&gt;:&lt;过滤条件&gt;，过滤条件由调用方规范化为字符串，放在最后；
+ * 调用方须保证不同的过滤条件得到不同的字符串（ProductServiceImpl 对每一项加长度前缀）：
+ * <ul>
+ *   <li>条目记录计算时的商品变更版本号（ProductChangeFeed 的 {@value ProductChangeFeed#VERSION_KEY}），
+ *       与版本号一起通过一次 MGET 读取，版本号变化后条目立即失效，创建商品后不会读到旧结果</li>
+ *   <li>条目在 ttl 后逻辑过期，过期前按 XFetch 算法以一定概率提前刷新：越接近过期、上次计算越慢，越可能提前刷新</li>
+ *   <li>需要重新计算时先以 SET NX 取得该页的锁，全集群只有持锁的调用访问数据库；未取得锁的调用继续使用
+ *       当前条目，没有可用条目时等待 lock-wait 再回退到数据库查询</li>
+ *   <li>同一节点内的并发调用通过 {@link SingleFlight} 合并，是否需要总数不同的调用分别合并</li>
+ * </ul>
+ * 游标分页不经过该缓存：按 (created_at, id) 定位只读取一页数据，代价与读取缓存相当。
+ * Redis 不可用时直接查询数据库。
+ *
+ * 配置示例：
+ * <pre>
+ * product:
+ *   page-cache:
+ *     enabled: true
+ *     ttl: 5s
+ *     beta: 1.0
+ *     lock-timeout: 2s
+ *     lock-wait: 200ms
+ * </pre>
+ */
+@Component
+public class ProductPageCache {
+    private static final Logger logger = LoggerFactory.getLogger(ProductPageCache.class);
+
+    private static final String KEY_PREFIX = "product:page:";
+
+    private static final String LOCK_SUFFIX = ":lock";
+
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    /**
+     * 只删除自己持有的锁
+     */
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+        Long.class);
+
+    @Value("${product.page-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${product.page-cache.ttl:5s}")
+    private Duration ttl;
+
+    @Value("${product.page-cache.beta:1.0}")
+    private double beta;
+
+    @Value("${product.page-cache.lock-timeout:2s}")
+    private Duration lockTimeout;
+
+    @Value("${product.page-cache.lock-wait:200ms}")
+    private Duration lockWait;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final SingleFlight<String, Page> loads = new SingleFlight<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        FunctionCounter.builder("product.page.cache.hits", hits, LongAdder::sum)
+            .description("商品分页缓存命中次数")
+            .register(meterRegistry);
+        FunctionCounter.builder("product.page.cache.misses", misses, LongAdder::sum)
+            .description("商品分页缓存未命中、由本节点查询数据库的次数")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 读取分页结果，缓存不可用时通过 loader 查询数据库
+     *
+     * @param sort 排序方式
+     * @param filter 规范化的过滤条件，不同的过滤条件必须不同，无过滤条件时为空字符串
+     * @param offset 偏移量
+     * @param limit 查询条数
+     * @param includeTotal 是否需要总数；缓存的条目没有总数时重新计算
+     * @param loader 查询数据库的函数
+     */
+    public Page get(String sort, String filter, int offset, int limit, boolean includeTotal,
+                    Supplier<Page> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // 过滤条件放在最后，其中出现 ':' 时 key 仍然唯一
+        String key = KEY_PREFIX + sort + ':' + offset + ':' + limit + ':' + filter;
+        // 不需要总数的加载结果没有总数，需要总数的调用不能与其合并
+        String flight = includeTotal ? "total:" + key : key;
+        return loads.execute(flight, () -> load(key, includeTotal, loader));
+    }
+
+    private Page load(String key, boolean includeTotal, Supplier<Page> loader) {
+        String version;
+        Entry entry;
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(Arrays.asList(key, ProductChangeFeed.VERSION_KEY));
+            version = values == null || values.get(1) == null ? "0" : values.get(1);
+            entry = values == null ? null : decode(values.get(0));
+        } catch (Exception e) {
+            logger.warn("从Redis读取商品分页缓存失败，回退到数据库查询: {}", key, e);
+            misses.increment();
+            return loader.get();
+        }
+
+        boolean usable = usable(entry, version, includeTotal);
+        if (usable && !shouldRefresh(entry, System.currentTimeMillis())) {
+            hits.increment();
+            return entry.toPage();
+        }
+
+        String token = tryLock(key);
+        if (token != null) {
+            try {
+                misses.increment();
+                return compute(key, version, loader);
+            } finally {
+                unlock(key, token);
+            }
+        }
+        if (usable) {
+            // 其他调用正在刷新，继续使用尚未失效的条目
+            hits.increment();
+            return entry.toPage();
+        }
+
+        Entry computed = awaitOtherNode(key, version, includeTotal);
+        if (computed != null) {
+            hits.increment();
+            return computed.toPage();
+        }
+        logger.info("等待商品分页缓存超时，直接查询数据库: {}", key);
+        misses.increment();
+        return loader.get();
+    }
+
+    private static boolean usable(Entry entry, String version, boolean includeTotal) {
+        return entry != null && version.equals(entry.getVersion()) && (!includeTotal || entry.getTotal() >= 0);
+    }
+
+    /**
+     * XFetch：以 delta * beta * -ln(random) 的提前量判断是否在过期前刷新
+     */
+    private boolean shouldRefresh(Entry entry, long now) {
+        double random = ThreadLocalRandom.current().nextDouble();
+        return now - entry.getDelta() * beta * Math.log(random) >= entry.getExpiresAt();
+    }
+
+    private Page compute(String key, String version, Supplier<Page> loader) {
+        long start = System.currentTimeMillis();
+        Page page = loader.get();
+        long now = System.currentTimeMillis();
+
+        Entry entry = new Entry();
+        entry.setVersion(version);
+        entry.setRecords(page.getRecords());
+        entry.setTotal(page.getTotal());
+        entry.setDelta(now - start);
+        entry.setExpiresAt(now + ttl.toMillis());
+        try {
+            // 物理过期时间留出一个 ttl，刷新期间其他调用仍可使用旧条目
+            redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(entry), ttl.multipliedBy(2));
+        } catch (Exception e) {
+            logger.warn("写入商品分页缓存失败: {}", key, e);
+        }
+        return page;
+    }
+
+    private Entry awaitOtherNode(String key, String version, boolean includeTotal) {
+        long deadline = System.currentTimeMillis() + lockWait.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+                Entry entry = decode(redisTemplate.opsForValue().get(key));
+                if (usable(entry, version, includeTotal)) {
+                    return entry;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                logger.warn("读取商品分页缓存失败: {}", key, e);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private String tryLock(String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(key + LOCK_SUFFIX, token, lockTimeout);
+            return Boolean.TRUE.equals(locked) ? token : null;
+        } catch (Exception e) {
+            logger.warn("获取商品分页缓存锁失败: {}", key, e);
+            return null;
+        }
+    }
+
+    private void unlock(String key, String token) {
+        try {
+            redisTemplate.execute(UNLOCK, Collections.singletonList(key + LOCK_SUFFIX), token);
+        } catch (Exception e) {
+            // 锁会在 lock-timeout 后过期
+            logger.warn("释放商品分页缓存锁失败: {}", key, e);
+        }
+    }
+
+    private Entry decode(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, Entry.class);
+        } catch (Exception e) {
+            logger.warn("无法解析商品分页缓存，忽略: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 分页查询结果
+     */
+    public static final class Page {
+        private final List<Product> records;
+        private final long total;
+
+        /**
+         * @param records 查询到的商品
+         * @param total 总数，未统计时为 PageResponse.TOTAL_NOT_COUNTED（负数）
+         */
+        public Page(List<Product> records, long total) {
+            this.records = records;
+            this.total = total;
+        }
+
+        public List<Product> getRecords() {
+            return records;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Redis 中保存的条目
+     */
+    static final class Entry {
+        private String version;
+        private List<Product> records;
+        private long total;
+        private long delta;
+        private long expiresAt;
+
+        Page toPage() {
+            return new Page(records, total);
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public void setVersion(String version) {
+            this.version = version;
+        }
+
+        public List<Product> getRecords() {
+            return records;
+        }
+
+        public void setRecords(List<Product> records) {
+            this.records = records;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public long getDelta() {
+            return delta;
+        }
+
+        public void setDelta(long delta) {
+            this.delta = delta;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public void setExpiresAt(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
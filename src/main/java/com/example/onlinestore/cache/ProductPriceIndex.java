@@ -0,0 +1,148 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 商品价格列式索引
+ *
+ * 由 {@link ProductCatalog} 快照按需构建，构建后不再修改：
+ * <ul>
+ *   <li>cents：以分为单位的价格，按 (price ASC, created_at ASC, id ASC) 排序，价格区间通过二分查找定位为连续区段</li>
+ *   <li>positions：与 cents 对齐，记录每个商品在快照 (created_at DESC, id DESC) 排序中的下标；
+ *       价格区间按创建时间排序时只需对区段内的下标做一次基本类型排序</li>
+ * </ul>
+ * 价格倒序直接反向读取区段，此时价格相同的商品按创建时间从新到旧排列，与 ProductMapper 的
+ * ORDER BY price DESC, created_at DESC, id DESC 一致，两个方向都可以使用同一个 (price, created_at, id) 索引。
+ */
+final class ProductPriceIndex {
+
+    /**
+     * 快照下标占用排序键的低位，DECIMAL(10, 2) 的价格以分为单位不超过 34 位
+     */
+    private static final int POSITION_BITS = 29;
+
+    private static final long MAX_CENTS = (1L << (Long.SIZE - 1 - POSITION_BITS)) - 1;
+
+    private final Product[] sorted;
+
+    private final long[] cents;
+
+    private final int[] positions;
+
+    private ProductPriceIndex(Product[] sorted, long[] cents, int[] positions) {
+        this.sorted = sorted;
+        this.cents = cents;
+        this.positions = positions;
+    }
+
+    /**
+     * 由按 (created_at DESC, id DESC) 排序的快照数组构建索引
+     */
+    static ProductPriceIndex of(Product[] sorted) {
+        // 排序键为 (价格, 快照中的逆序下标)，一次 long 排序得到价格升序、同价按创建时间升序的排列
+        long mask = (1L << POSITION_BITS) - 1;
+        long[] keys = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = cents(sorted[i].getPrice()) << POSITION_BITS | (mask - i);
+        }
+        Arrays.sort(keys);
+
+        long[] cents = new long[keys.length];
+        int[] positions = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            cents[i] = keys[i] >>> POSITION_BITS;
+            positions[i] = (int) (mask - (keys[i] & mask));
+        }
+        return new ProductPriceIndex(sorted, cents, positions);
+    }
+
+    /**
+     * 价格区间内的商品，按价格排序
+     *
+     * @param minCents 价格下限（分，包含）
+     * @param maxCents 价格上限（分，包含）
+     * @param descending 是否按价格从高到低
+     */
+    List<Product> byPrice(long minCents, long maxCents, boolean descending) {
+        int from = lowerBound(minCents);
+        int to = Math.max(from, lowerBound(maxCents == Long.MAX_VALUE ? Long.MAX_VALUE : maxCents + 1));
+        return new AbstractList<>() {
+            @Override
+            public Product get(int index) {
+                return sorted[positions[descending ? to - 1 - index : from + index]];
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    /**
+     * 价格区间内的商品，按 (created_at DESC, id DESC) 排序
+     */
+    List<Product> inCreatedOrder(long minCents, long maxCents) {
+        int from = lowerBound(minCents);
+        int to = Math.max(from, lowerBound(maxCents == Long.MAX_VALUE ? Long.MAX_VALUE : maxCents + 1));
+        int[] selected = Arrays.copyOfRange(positions, from, to);
+        Arrays.sort(selected);
+        Product[] result = new Product[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            result[i] = sorted[selected[i]];
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * 第一个价格不小于 value 的位置
+     */
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = cents.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cents[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 以分为单位的商品价格，按 DECIMAL(10, 2) 入库时的规则四舍五入
+     */
+    static long cents(BigDecimal price) {
+        return price == null ? 0 : Math.max(0, toCents(price, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * 价格下限换算为分：price &gt;= min 等价于 cents &gt;= ceil(min * 100)
+     */
+    static long minCents(BigDecimal min) {
+        return min == null ? Long.MIN_VALUE : toCents(min, RoundingMode.CEILING);
+    }
+
+    /**
+     * 价格上限换算为分：price &lt;= max 等价于 cents &lt;= floor(max * 100)
+     */
+    static long maxCents(BigDecimal max) {
+        return max == null ? Long.MAX_VALUE : toCents(max, RoundingMode.FLOOR);
+    }
+
+    /**
+     * 超出 DECIMAL(10, 2) 范围的值截断为 MAX_CENTS，不影响比较结果
+     */
+    private static long toCents(BigDecimal value, RoundingMode roundingMode) {
+        BigDecimal cents = value.movePointRight(2).setScale(0, roundingMode);
+        return cents.compareTo(BigDecimal.valueOf(MAX_CENTS)) > 0 ? MAX_CENTS : cents.longValue();
+    }
+}
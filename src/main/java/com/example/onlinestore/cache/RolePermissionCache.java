@@ -0,0 +1,172 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Permission;
+import com.example.onlinestore.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * 角色权限缓存
+ *
+ * 角色与用户的对应关系来自配置，启动时编译为 用户名 -> 权限位图 的只读快照：
+ * <ul>
+ *   <li>登录时解析一次，角色和位图写入会话，权限检查只做一次位运算，不查询数据库或 Redis</li>
+ *   <li>Nacos 配置刷新后 Spring Cloud 重新绑定该对象并生成新快照；快照版本由内容计算，
+ *       已缓存的会话在下一次权限检查时按新快照重新解析</li>
+ *   <li>admin.auth.username 配置的管理员始终拥有全部权限</li>
+ * </ul>
+ *
+ * 配置示例：
+ * <pre>
+ * security:
+ *   roles:
+ *     admin: ADMIN, PRODUCT_WRITE, USER_READ
+ *     operator: PRODUCT_WRITE
+ *   user-roles:
+ *     alice: admin
+ *     bob: operator
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "security")
+public class RolePermissionCache implements InitializingBean, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RolePermissionCache.class);
+
+    @Value("${admin.auth.username}")
+    private String adminUsername;
+
+    private Map<String, Set<Permission>> roles = new HashMap<>();
+
+    private Map<String, Set<String>> userRoles = new HashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * 按当前快照解析用户的角色和权限，登录时调用
+     */
+    public void resolve(User user) {
+        resolve(user, snapshot);
+    }
+
+    /**
+     * 判断用户是否拥有指定权限
+     *
+     * 会话是按旧版本配置解析的，先按当前快照重新解析。
+     */
+    public boolean hasPermission(User user, Permission permission) {
+        Snapshot current = snapshot;
+        if (user.getPermissionRevision() != current.revision) {
+            resolve(user, current);
+        }
+        return (user.getPermissions() & permission.mask()) != 0;
+    }
+
+    private void resolve(User user, Snapshot current) {
+        String username = user.getUsername();
+        user.setRoles(current.rolesOf(username));
+        user.setPermissions(adminUsername.equals(username) ? Permission.all() : current.permissionsOf(username));
+        // 最后写入 volatile 的版本号，读到新版本号的线程一定能看到对应的权限
+        user.setPermissionRevision(current.revision);
+    }
+
+    /**
+     * 绑定配置后生成新快照，启动和配置刷新时都会调用
+     */
+    @Override
+    public void afterPropertiesSet() {
+        Map<String, Long> permissions = new HashMap<>();
+        Map<String, Set<String>> assigned = new HashMap<>();
+        StringBuilder content = new StringBuilder(adminUsername).append(';');
+        for (Map.Entry<String, Set<String>> entry : new TreeMap<>(userRoles).entrySet()) {
+            long mask = 0;
+            for (String role : entry.getValue()) {
+                Set<Permission> granted = roles.get(role);
+                if (granted == null) {
+                    logger.warn("用户 {} 配置了未定义的角色 {}", entry.getKey(), role);
+                    continue;
+                }
+                for (Permission permission : granted) {
+                    mask |= permission.mask();
+                }
+            }
+            permissions.put(entry.getKey(), mask);
+            assigned.put(entry.getKey(), Collections.unmodifiableSet(new LinkedHashSet<>(entry.getValue())));
+            content.append(entry.getKey()).append('=').append(mask).append(entry.getValue()).append(';');
+        }
+        snapshot = new Snapshot(revisionOf(content), permissions, assigned);
+        logger.info("角色权限配置已加载，共 {} 个角色、{} 个用户", roles.size(), userRoles.size());
+    }
+
+    /**
+     * 配置刷新时 Spring Cloud 先销毁再重新绑定，换成空集合以免删除的条目残留；
+     * 新快照生成前权限检查继续使用旧快照
+     */
+    @Override
+    public void destroy() {
+        roles = new HashMap<>();
+        userRoles = new HashMap<>();
+    }
+
+    private static long revisionOf(CharSequence content) {
+        long revision = UUID.nameUUIDFromBytes(content.toString().getBytes(StandardCharsets.UTF_8))
+            .getMostSignificantBits();
+        // 0 表示会话尚未解析
+        return revision == 0 ? 1 : revision;
+    }
+
+    public Map<String, Set<Permission>> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Map<String, Set<Permission>> roles) {
+        this.roles = roles;
+    }
+
+    public Map<String, Set<String>> getUserRoles() {
+        return userRoles;
+    }
+
+    public void setUserRoles(Map<String, Set<String>> userRoles) {
+        this.userRoles = userRoles;
+    }
+
+    /**
+     * 编译后的只读角色权限表
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(0, Collections.emptyMap(), Collections.emptyMap());
+
+        // 空快照只在绑定配置之前存在，此时不授予任何权限
+        private final long revision;
+        private final Map<String, Long> permissions;
+        private final Map<String, Set<String>> roles;
+
+        private Snapshot(long revision, Map<String, Long> permissions, Map<String, Set<String>> roles) {
+            this.revision = revision;
+            this.permissions = permissions;
+            this.roles = roles;
+        }
+
+        long permissionsOf(String username) {
+            return permissions.getOrDefault(username, 0L);
+        }
+
+        Set<String> rolesOf(String username) {
+            return roles.getOrDefault(username, Collections.emptySet());
+        }
+    }
+}
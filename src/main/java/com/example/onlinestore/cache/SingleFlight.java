@@ -0,0 +1,68 @@
+package com.example.onlinestore.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 相同请求合并执行
+ *
+ * 同一个 key 同时只执行一次加载，期间到达的其他调用等待同一个结果，
+ * 避免突发流量下对 Redis 或下游服务的重复请求。加载结束后立即移除，不缓存结果。
+ *
+ * @param <K> 请求标识
+ * @param <V> 结果类型
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行加载，已有相同 key 的加载在进行时等待其结果
+     *
+     * @param key 请求标识
+     * @param loader 加载逻辑，在首个调用方线程中执行
+     * @return 加载结果；加载抛出的异常会同样抛给所有等待的调用方
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return 正在进行的加载数量
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
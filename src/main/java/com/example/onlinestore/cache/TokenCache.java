@@ -0,0 +1,125 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * token 本地近端缓存
+ *
+ * 位于 Redis 之前的一级缓存，避免每个请求都访问 Redis 并解析 JSON：
+ * <ul>
+ *   <li>有效 token 缓存到 token_expire_time，且不超过 max-ttl</li>
+ *   <li>Redis 中不存在的 token 缓存 negative-ttl，抵御无效 token 的请求洪峰</li>
+ *   <li>通过 Redis 频道 {@value #INVALIDATION_CHANNEL} 广播失效消息，其他节点收到后删除本地条目</li>
+ * </ul>
+ *
+ * 配置示例：
+ * <pre>
+ * user:
+ *   token-cache:
+ *     max-size: 10000
+ *     max-ttl: 5m
+ *     negative-ttl: 5s
+ * </pre>
+ */
+@Component
+public class TokenCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(TokenCache.class);
+
+    public static final String INVALIDATION_CHANNEL = "token:invalidate";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${user.token-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${user.token-cache.max-ttl:5m}")
+    private Duration maxTtl;
+
+    @Value("${user.token-cache.negative-ttl:5s}")
+    private Duration negativeTtl;
+
+    private final ExpiringEntries<Entry> entries = new ExpiringEntries<>(entry -> entry.expiresAt);
+
+    /**
+     * 查询本地缓存
+     *
+     * @param token 用户token
+     * @return 未缓存或已过期时返回 null；否则返回缓存条目，无效 token 的条目中用户为 null
+     */
+    public Entry get(String token) {
+        return entries.get(token);
+    }
+
+    /**
+     * 缓存有效 token 对应的用户
+     */
+    public void put(String token, User user) {
+        long expiresAt = System.currentTimeMillis() + maxTtl.toMillis();
+        if (user.getTokenExpireTime() != null) {
+            expiresAt = Math.min(expiresAt,
+                user.getTokenExpireTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        entries.put(token, new Entry(user, expiresAt), maxSize);
+    }
+
+    /**
+     * 缓存 Redis 中不存在的 token
+     */
+    public void putInvalid(String token) {
+        entries.put(token, new Entry(null, System.currentTimeMillis() + negativeTtl.toMillis()), maxSize);
+    }
+
+    /**
+     * 删除本节点的条目，并通知其他节点删除
+     */
+    public void invalidate(String token) {
+        entries.remove(token);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, token);
+        } catch (Exception e) {
+            logger.warn("广播token失效消息失败，其他节点将在缓存过期后更新", e);
+        }
+    }
+
+    /**
+     * 处理其他节点广播的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String token = new String(message.getBody(), StandardCharsets.UTF_8);
+        entries.remove(token);
+    }
+
+    /**
+     * 缓存条目
+     */
+    public static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return token 对应的用户，无效 token 时为 null
+         */
+        public User getUser() {
+            return user;
+        }
+    }
+}
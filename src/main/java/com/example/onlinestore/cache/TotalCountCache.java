@@ -0,0 +1,167 @@
+package com.example.onlinestore.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 分页总数缓存
+ *
+ * 避免每次分页查询都执行 COUNT(*)：
+ * <ul>
+ *   <li>无过滤条件的精确总数保存在 Redis（key 为 count:&lt;name&gt;），首次读取时由数据库初始化，
+ *       之后在插入事务提交后递增；key 带有过期时间，用于修正初始化与递增并发时可能产生的偏差</li>
+ *   <li>带过滤条件的总数在本地缓存一个很短的时间，本节点插入数据时清空</li>
+ * </ul>
+ * Redis 不可用时直接回退到数据库查询。
+ *
+ * 配置示例：
+ * <pre>
+ * count:
+ *   cache:
+ *     exact-ttl: 10m
+ *     filter-ttl: 5s
+ *     filter-max-size: 1000
+ * </pre>
+ */
+@Component
+public class TotalCountCache {
+    private static final Logger logger = LoggerFactory.getLogger(TotalCountCache.class);
+
+    public static final String PRODUCTS = "products";
+    public static final String USERS = "users";
+
+    private static final String KEY_PREFIX = "count:";
+
+    /**
+     * 只在 key 已存在时递增，避免在未初始化的 key 上从 0 开始计数
+     */
+    private static final RedisScript<Long> INCREMENT_IF_EXISTS = new DefaultRedisScript<>(
+        "if redis.call('exists', KEYS[1]) == 1 then return redis.call('incrby', KEYS[1], ARGV[1]) end return nil",
+        Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${count.cache.exact-ttl:10m}")
+    private Duration exactTtl;
+
+    @Value("${count.cache.filter-ttl:5s}")
+    private Duration filterTtl;
+
+    @Value("${count.cache.filter-max-size:1000}")
+    private int filterMaxSize;
+
+    private final Map<String, FilteredCount> filteredCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 获取无过滤条件的精确总数
+     *
+     * @param name 计数名称，如 {@link #PRODUCTS}
+     * @param loader Redis 中没有时用于从数据库加载的函数
+     */
+    public long exact(String name, LongSupplier loader) {
+        String key = KEY_PREFIX + name;
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (Exception e) {
+            logger.warn("从Redis读取总数失败，回退到数据库查询: {}", key, e);
+            return loader.getAsLong();
+        }
+
+        long total = loader.getAsLong();
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(total), exactTtl);
+        } catch (Exception e) {
+            logger.warn("缓存总数到Redis失败: {}", key, e);
+        }
+        return total;
+    }
+
+    /**
+     * 获取带过滤条件的总数，结果在本地缓存 filter-ttl 时长
+     *
+     * @param name 计数名称
+     * @param filter 过滤条件
+     * @param loader 缓存过期时用于从数据库加载的函数
+     */
+    public long filtered(String name, String filter, LongSupplier loader) {
+        String key = name + ':' + filter;
+        long now = System.nanoTime();
+        FilteredCount cached = filteredCounts.get(key);
+        if (cached != null && now - cached.expiresAt < 0) {
+            return cached.total;
+        }
+
+        long total = loader.getAsLong();
+        if (filteredCounts.size() >= filterMaxSize) {
+            filteredCounts.values().removeIf(entry -> now - entry.expiresAt >= 0);
+            if (filteredCounts.size() >= filterMaxSize) {
+                filteredCounts.clear();
+            }
+        }
+        filteredCounts.put(key, new FilteredCount(total, now + filterTtl.toNanos()));
+        return total;
+    }
+
+    /**
+     * 在当前事务提交后递增总数；没有事务时立即递增
+     *
+     * @param name 计数名称
+     * @param delta 增量
+     */
+    public void increment(String name, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doIncrement(name, delta);
+                }
+            });
+        } else {
+            doIncrement(name, delta);
+        }
+    }
+
+    private void doIncrement(String name, long delta) {
+        String prefix = name + ':';
+        filteredCounts.keySet().removeIf(key -> key.startsWith(prefix));
+        try {
+            redisTemplate.execute(INCREMENT_IF_EXISTS,
+                Collections.singletonList(KEY_PREFIX + name), String.valueOf(delta));
+        } catch (Exception e) {
+            logger.warn("递增Redis总数失败，删除缓存等待下次重新加载: {}", name, e);
+            try {
+                redisTemplate.delete(KEY_PREFIX + name);
+            } catch (Exception ignored) {
+                // Redis 不可用时 key 会在 exact-ttl 后过期
+            }
+        }
+    }
+
+    private static final class FilteredCount {
+        private final long total;
+        private final long expiresAt;
+
+        private FilteredCount(long total, long expiresAt) {
+            this.total = total;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
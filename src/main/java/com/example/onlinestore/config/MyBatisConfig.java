@@ -4,14 +4,16 @@ import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.SqlSessionFactoryBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import javax.sql.DataSource;
+import java.util.Properties;
 
 @Configuration
 public class MyBatisConfig {
 
     @Bean
-    public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource, Environment environment) throws Exception {
         SqlSessionFactoryBean sessionFactory = new SqlSessionFactoryBean();
         sessionFactory.setDataSource(dataSource);
         sessionFactory.setMapperLocations(new PathMatchingResourcePatternResolver()
@@ -21,6 +23,12 @@ public class MyBatisConfig {
         // 开启驼峰命名转换
         configuration.setMapUnderscoreToCamelCase(true);
         sessionFactory.setConfiguration(configuration);
+
+        // 供 mapper XML 中 ${...} 引用的配置项
+        Properties properties = new Properties();
+        properties.setProperty("product.search.fulltext-enabled",
+            environment.getProperty("product.search.fulltext-enabled", "false"));
+        sessionFactory.setConfigurationProperties(properties);
         
         return sessionFactory.getObject();
     }
@@ -1,15 +1,79 @@
 package com.example.onlinestore.config;
 
+import com.example.onlinestore.cache.ProductChangeFeed;
+import com.example.onlinestore.cache.TokenCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class RedisConfig {
+    private static final Logger logger = LoggerFactory.getLogger(RedisConfig.class);
+
+    private static final long MAX_START_BACKOFF_SECONDS = 60;
 
     @Bean
     public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
         return new StringRedisTemplate(connectionFactory);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 订阅跨节点的缓存失效与商品变更消息
+     *
+     * 不随容器自动启动：Redis 不可用时订阅会失败，不能因此阻止应用启动，
+     * 由 {@link #startListenerContainer} 在应用就绪后于后台重试启动。
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       TokenCache tokenCache,
+                                                                       ProductChangeFeed productChangeFeed) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return false;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tokenCache, new ChannelTopic(TokenCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(productChangeFeed, new ChannelTopic(ProductChangeFeed.CHANNEL));
+        return container;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListenerContainer(ApplicationReadyEvent event) {
+        RedisMessageListenerContainer container = event.getApplicationContext()
+            .getBean(RedisMessageListenerContainer.class);
+        ProductChangeFeed productChangeFeed = event.getApplicationContext().getBean(ProductChangeFeed.class);
+        Thread starter = new Thread(() -> {
+            long backoff = 1;
+            while (!container.isRunning()) {
+                try {
+                    container.start();
+                    logger.info("Redis消息订阅已启动");
+                    // 补齐订阅建立之前发布的商品变更
+                    productChangeFeed.subscribed();
+                } catch (Exception e) {
+                    logger.warn("Redis消息订阅启动失败，{} 秒后重试: {}", backoff, e.getMessage());
+                    try {
+                        TimeUnit.SECONDS.sleep(backoff);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    backoff = Math.min(backoff * 2, MAX_START_BACKOFF_SECONDS);
+                }
+            }
+        }, "redis-listener-starter");
+        starter.setDaemon(true);
+        starter.start();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.onlinestore.config;
+
+import com.example.onlinestore.session.BinarySessionCodec;
+import com.example.onlinestore.session.CompositeSessionCodec;
+import com.example.onlinestore.session.JsonSessionCodec;
+import com.example.onlinestore.session.SessionCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+
+/**
+ * 会话编解码配置
+ *
+ * 通过 session.codec 选择写入格式（json 或 binary），两种格式始终都可以读取。
+ * 默认写入 JSON：旧版本节点只能读取 JSON，滚动发布期间不能写入它们读不了的会话；
+ * 所有节点都升级到能读取二进制格式的版本后，再将 session.codec 改为 binary。
+ *
+ * 角色和权限位图同理：session.write-permissions 默认为 false，会话中不写入这两项（二进制格式写入 b1:），
+ * 读出后在首次权限检查时由 RolePermissionCache 在内存中解析；所有节点都能读取后再改为 true。
+ */
+@Configuration
+public class SessionConfig {
+
+    @Bean
+    public SessionCodec sessionCodec(@Value("${session.codec:json}") String codec,
+                                     @Value("${session.write-permissions:false}") boolean writePermissions) {
+        SessionCodec binary = new BinarySessionCodec(writePermissions);
+        SessionCodec json = new JsonSessionCodec(writePermissions);
+        SessionCodec writer = "binary".equalsIgnoreCase(codec) ? binary : json;
+        return new CompositeSessionCodec(writer, Arrays.asList(binary, json));
+    }
+}
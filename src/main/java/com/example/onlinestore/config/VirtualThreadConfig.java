@@ -0,0 +1,77 @@
+package com.example.onlinestore.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程模式配置
+ *
+ * 开启后 Tomcat 为每个请求创建一个虚拟线程，请求中阻塞的 MySQL、Redis、user-service 调用
+ * 只挂起虚拟线程而不占用平台线程。此时并发上限不再由 Tomcat 线程数决定，而是由数据库连接池、
+ * HTTP 连接池和 user-service 隔离舱决定。
+ *
+ * 需要 Java 21 及以上版本运行（构建时使用 -Pjava21）；项目仍以 Java 17 编译，
+ * 因此通过反射创建虚拟线程执行器。
+ *
+ * 配置示例：
+ * <pre>
+ * virtual-threads:
+ *   enabled: true
+ * </pre>
+ */
+@Configuration
+@ConditionalOnProperty(name = "virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * 不注册为 Bean：容器中出现 Executor 类型的 Bean 时 Spring Boot 不再自动配置 applicationTaskExecutor
+     */
+    private volatile ExecutorService executor;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        this.executor = executor;
+        logger.info("Tomcat 请求处理使用虚拟线程");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Tomcat 不会关闭外部传入的执行器，容器关闭时在此等待剩余请求结束
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        ExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        if (!current.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            logger.warn("虚拟线程执行器在 {} 秒内未结束，强制关闭", SHUTDOWN_TIMEOUT_SECONDS);
+            current.shutdownNow();
+        }
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("虚拟线程模式需要 Java 21 及以上版本，当前版本: "
+                + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("创建虚拟线程执行器失败", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.onlinestore.config;
 
 import com.example.onlinestore.interceptor.AuthInterceptor;
+import com.example.onlinestore.interceptor.RequireAdminInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -12,10 +14,18 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private AuthInterceptor authInterceptor;
 
+    // 仅在 web.guard.mode 为 interceptor 时存在
+    @Autowired
+    private ObjectProvider<RequireAdminInterceptor> requireAdminInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(authInterceptor)
                 .addPathPatterns("/api/**")
                 .excludePathPatterns("/api/auth/login");
+        // 需要 AuthInterceptor 设置的当前用户，必须在其后注册
+        requireAdminInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/auth/login"));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.example.onlinestore.config;
+
+import com.example.onlinestore.validation.MethodParameterValidator;
+import com.example.onlinestore.validation.ValidatingArgumentResolver;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 拦截器模式的请求守卫配置
+ *
+ * web.guard.mode 为 interceptor 时，@RequireAdmin 和 @ValidateParams 不再通过 AOP 代理实现：
+ * <ul>
+ *   <li>RequireAdminInterceptor 在启动时扫描处理方法，请求时按方法查表检查管理员权限</li>
+ *   <li>参数解析器解析出参数后立即验证，验证规则与 ValidationAspect 相同，
+ *       验证失败由 ParameterValidationExceptionHandler 返回 400</li>
+ * </ul>
+ * Controller 不再被代理，调用时没有切点匹配和通知链的开销。
+ *
+ * 配置示例：
+ * <pre>
+ * web:
+ *   guard:
+ *     mode: interceptor   # 默认 aspect
+ * </pre>
+ */
+@Configuration
+@ConditionalOnProperty(name = "web.guard.mode", havingValue = "interceptor")
+public class WebGuardConfig {
+
+    @Bean
+    public static BeanPostProcessor validatingArgumentResolverPostProcessor(
+            ObjectProvider<Validator> validator, ObjectProvider<MessageSource> messageSource) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RequestMappingHandlerAdapter adapter && adapter.getArgumentResolvers() != null) {
+                    MethodParameterValidator parameterValidator =
+                        new MethodParameterValidator(validator.getObject(), messageSource.getObject());
+                    List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>();
+                    for (HandlerMethodArgumentResolver resolver : adapter.getArgumentResolvers()) {
+                        resolvers.add(new ValidatingArgumentResolver(resolver, parameterValidator));
+                    }
+                    adapter.setArgumentResolvers(resolvers);
+                }
+                return bean;
+            }
+        };
+    }
+}
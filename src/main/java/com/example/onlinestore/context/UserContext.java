@@ -2,6 +2,25 @@ package com.example.onlinestore.context;
 
 import com.example.onlinestore.model.User;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 当前请求的用户
+ *
+ * 使用普通 ThreadLocal（不使用 InheritableThreadLocal，子线程不会复制），由 AuthInterceptor
+ * 在请求开始时设置、结束时清除。虚拟线程模式下每个请求都是新的虚拟线程，值随线程结束释放，
+ * 不会在请求之间残留。
+ *
+ * 异步任务通过 {@link #capture()} 取得当前上下文的快照，在执行线程上临时安装，执行结束后恢复
+ * 该线程原来的值。快照只持有 User 的引用，传递时不复制对象：
+ * <pre>
+ * CompletableFuture.supplyAsync(UserContext.capture().wrapSupplier(() -> service.load()), executor);
+ * UserContext.propagating(executor).execute(task);
+ * </pre>
+ * Spring Boot 自动配置的 applicationTaskExecutor（Spring MVC 异步请求处理使用）由 UserContextTaskDecorator 自动传递。
+ */
 public class UserContext {
     private static final ThreadLocal<User> currentUser = new ThreadLocal<>();
 
@@ -16,4 +35,90 @@ public class UserContext {
     public static void clear() {
         currentUser.remove();
     }
-} 
\ No newline at end of file
+
+    /**
+     * 以指定用户执行任务，结束后恢复当前线程原来的用户
+     */
+    public static void runWith(User user, Runnable task) {
+        User previous = currentUser.get();
+        currentUser.set(user);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 以指定用户执行任务并返回结果，结束后恢复当前线程原来的用户
+     */
+    public static <T> T callWith(User user, Callable<T> task) throws Exception {
+        User previous = currentUser.get();
+        currentUser.set(user);
+        try {
+            return task.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 取得当前线程上下文的快照
+     */
+    public static Snapshot capture() {
+        User user = currentUser.get();
+        return user == null ? Snapshot.EMPTY : new Snapshot(user);
+    }
+
+    /**
+     * 包装执行器，提交的任务在执行时使用提交时的用户
+     */
+    public static Executor propagating(Executor executor) {
+        return task -> executor.execute(capture().wrap(task));
+    }
+
+    private static void restore(User previous) {
+        if (previous == null) {
+            currentUser.remove();
+        } else {
+            currentUser.set(previous);
+        }
+    }
+
+    /**
+     * 用户上下文快照
+     */
+    public static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(null);
+
+        private final User user;
+
+        private Snapshot(User user) {
+            this.user = user;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public Runnable wrap(Runnable task) {
+            return () -> runWith(user, task);
+        }
+
+        public <T> Callable<T> wrap(Callable<T> task) {
+            return () -> callWith(user, task);
+        }
+
+        public <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+            return () -> {
+                User previous = currentUser.get();
+                currentUser.set(user);
+                try {
+                    return task.get();
+                } finally {
+                    restore(previous);
+                }
+            };
+        }
+    }
+}
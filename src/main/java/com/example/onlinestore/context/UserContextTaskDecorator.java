@@ -0,0 +1,20 @@
+package com.example.onlinestore.context;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 将提交任务时的用户上下文传递到 Spring 管理的线程池
+ *
+ * Spring Boot 自动配置的 applicationTaskExecutor 会使用该装饰器，目前的使用方是 Spring MVC 的异步请求处理，
+ * 例如 ProductController 导出商品时返回的 StreamingResponseBody。
+ * 应用没有开启 @EnableAsync，@Async 方法仍在调用线程上同步执行，不经过该线程池。
+ */
+@Component
+public class UserContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return UserContext.capture().wrap(runnable);
+    }
+}
@@ -4,17 +4,28 @@ import com.example.onlinestore.annotation.RequireAdmin;
 import com.example.onlinestore.annotation.ValidateParams;
 import com.example.onlinestore.dto.CreateProductRequest;
 import com.example.onlinestore.dto.ErrorResponse;
+import com.example.onlinestore.dto.ProductFileFormat;
 import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.model.Permission;
 import com.example.onlinestore.model.Product;
+import com.example.onlinestore.service.ProductExportService;
+import com.example.onlinestore.service.ProductImportService;
 import com.example.onlinestore.service.ProductService;
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/products")
@@ -24,6 +35,12 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductExportService productExportService;
+
     @Autowired
     private MessageSource messageSource;
 
@@ -34,9 +51,9 @@ public class ProductController {
      * @return 创建的商品信息
      */
     @PostMapping
-    @RequireAdmin
+    @RequireAdmin(Permission.PRODUCT_WRITE)
     @ValidateParams
-    public ResponseEntity<?> createProduct(@RequestBody @Valid CreateProductRequest request) {
+    public ResponseEntity<?> createProduct(@RequestBody CreateProductRequest request) {
         try {
             logger.debug("开始创建商品，请求参数：{}", request);
             Product product = productService.createProduct(request);
@@ -61,7 +78,7 @@ public class ProductController {
      */
     @GetMapping
     @ValidateParams
-    public ResponseEntity<?> listProducts(@Valid ProductPageRequest request) {
+    public ResponseEntity<?> listProducts(ProductPageRequest request) {
         try {
             logger.debug("开始查询商品列表，请求参数：{}", request);
             return ResponseEntity.ok(productService.listProducts(request));
@@ -75,4 +92,59 @@ public class ProductController {
             return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 批量导入商品
+     *
+     * 请求体为 NDJSON（application/x-ndjson）或 CSV（text/csv），边读取边分批写入，不整体缓冲；
+     * 字符集取自 Content-Type，未指定时按 UTF-8 读取。
+     *
+     * @param request 原始请求，从中流式读取请求体
+     * @return 按批次汇总的导入结果
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @RequireAdmin(Permission.PRODUCT_WRITE)
+    public ResponseEntity<?> importProducts(HttpServletRequest request) {
+        try {
+            MediaType contentType = MediaType.parseMediaType(request.getContentType());
+            Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+            logger.info("开始批量导入商品，格式：{}", contentType);
+            try (Reader reader = new InputStreamReader(request.getInputStream(), charset)) {
+                return ResponseEntity.ok(productImportService.importProducts(reader, ProductFileFormat.of(contentType)));
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("批量导入商品失败：{}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("批量导入商品失败：{}", e.getMessage(), e);
+            String errorMessage = messageSource.getMessage(
+                "error.system.internal", null, LocaleContextHolder.getLocale());
+            return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
+        }
+    }
+
+    /**
+     * 导出全部商品
+     *
+     * 响应体在异步线程中流式写出，服务端不缓冲整个结果，超时时间见 spring.mvc.async.request-timeout。
+     *
+     * @param format 导出格式：ndjson（默认）或 csv
+     * @return 流式响应体
+     */
+    @GetMapping("/export")
+    @RequireAdmin(Permission.PRODUCT_WRITE)
+    public ResponseEntity<?> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        ProductFileFormat fileFormat = ProductFileFormat.of(format);
+        if (fileFormat == null) {
+            String errorMessage = messageSource.getMessage(
+                "error.product.export.format.unsupported", new Object[]{format}, LocaleContextHolder.getLocale());
+            logger.warn("导出商品失败：{}", errorMessage);
+            return ResponseEntity.badRequest().body(new ErrorResponse(errorMessage));
+        }
+        logger.info("开始导出商品，格式：{}", fileFormat);
+        StreamingResponseBody body = output -> productExportService.exportProducts(fileFormat, output);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(fileFormat.getMediaType() + ";charset=UTF-8"))
+            .body(body);
+    }
+}
@@ -6,8 +6,8 @@ import com.example.onlinestore.dto.ErrorResponse;
 import com.example.onlinestore.dto.PageResponse;
 import com.example.onlinestore.dto.UserPageRequest;
 import com.example.onlinestore.dto.UserVO;
+import com.example.onlinestore.model.Permission;
 import com.example.onlinestore.service.UserService;
-import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,9 +39,9 @@ public class UserController {
      * @return 用户列表分页数据
      */
     @GetMapping
-    @RequireAdmin
+    @RequireAdmin(Permission.USER_READ)
     @ValidateParams
-    public ResponseEntity<?> listUsers(@Valid UserPageRequest request) {
+    public ResponseEntity<?> listUsers(UserPageRequest request) {
         try {
             logger.debug("开始查询用户列表，请求参数：{}", request);
             long startTime = System.currentTimeMillis();
@@ -0,0 +1,59 @@
+package com.example.onlinestore.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 游标分页的位置
+ *
+ * 记录上一页最后一条记录的 (created_at, id)，对客户端以不透明的 Base64 字符串传递，
+ * 查询时从该位置之后继续按 created_at DESC, id DESC 读取，避免 LIMIT offset 扫描并丢弃前面的行。
+ */
+public class PageCursor {
+    private static final char SEPARATOR = ',';
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public PageCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * 编码为不透明的游标字符串
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param token 客户端传入的游标
+     * @return 解析出的游标，格式不正确时返回 null
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                return null;
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, index)),
+                Long.parseLong(raw.substring(index + 1)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -3,11 +3,25 @@ package com.example.onlinestore.dto;
 import java.util.List;
 
 public class PageResponse<T> {
+    /**
+     * 未计算总数时 total 的取值
+     */
+    public static final long TOTAL_NOT_COUNTED = -1;
+
     private List<T> records;
+
+    /**
+     * 总记录数，请求中 includeTotal=false 时不计算，返回 -1
+     */
     private long total;
     private int pageNum;
     private int pageSize;
 
+    /**
+     * 下一页的游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
     public List<T> getRecords() {
         return records;
     }
@@ -39,4 +53,12 @@ public class PageResponse<T> {
     public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
     }
-} 
\ No newline at end of file
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
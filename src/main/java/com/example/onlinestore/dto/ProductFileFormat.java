@@ -0,0 +1,51 @@
+package com.example.onlinestore.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 商品批量导入、导出的文件格式
+ */
+public enum ProductFileFormat {
+    /**
+     * 每行一个 JSON 对象，字段与 CreateProductRequest 相同
+     */
+    NDJSON("application/x-ndjson"),
+    /**
+     * 首行为表头；导入时必须包含 name、category、price 三列，列顺序不限
+     */
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    ProductFileFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * 按名称（ndjson、csv，不区分大小写）确定格式，不支持时返回 null
+     */
+    public static ProductFileFormat of(String name) {
+        for (ProductFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按请求的 Content-Type 确定格式，不支持时返回 null
+     */
+    public static ProductFileFormat of(MediaType contentType) {
+        for (ProductFileFormat format : values()) {
+            if (MediaType.parseMediaType(format.mediaType).includes(contentType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
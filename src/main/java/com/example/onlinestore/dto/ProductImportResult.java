@@ -0,0 +1,149 @@
+package com.example.onlinestore.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 商品批量导入结果，按批次报告进度和错误
+ */
+public class ProductImportResult {
+    private long totalRows;
+    private long imported;
+    private long failed;
+
+    /**
+     * 错误数超过上限后不再记录明细，failed 仍然准确
+     */
+    private boolean errorsTruncated;
+
+    private List<ChunkReport> chunks = new ArrayList<>();
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public List<ChunkReport> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<ChunkReport> chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * 单个批次的处理结果，每个批次在独立的事务中写入
+     */
+    public static class ChunkReport {
+        private int chunk;
+        private long firstLine;
+        private long lastLine;
+        private int imported;
+        private int failed;
+        private List<RowError> errors = new ArrayList<>();
+
+        public int getChunk() {
+            return chunk;
+        }
+
+        public void setChunk(int chunk) {
+            this.chunk = chunk;
+        }
+
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public void setFirstLine(long firstLine) {
+            this.firstLine = firstLine;
+        }
+
+        public long getLastLine() {
+            return lastLine;
+        }
+
+        public void setLastLine(long lastLine) {
+            this.lastLine = lastLine;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public void setImported(int imported) {
+            this.imported = imported;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public void setFailed(int failed) {
+            this.failed = failed;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public void setErrors(List<RowError> errors) {
+            this.errors = errors;
+        }
+    }
+
+    /**
+     * 导入失败的行，line 为请求体中的行号（从 1 开始，CSV 表头为第 1 行）
+     */
+    public static class RowError {
+        private long line;
+        private String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
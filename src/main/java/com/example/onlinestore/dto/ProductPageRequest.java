@@ -1,7 +1,11 @@
 package com.example.onlinestore.dto;
 
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Pattern;
+
+import java.math.BigDecimal;
 
 public class ProductPageRequest {
     @Min(value = 1, message = "error.page.number.min")
@@ -11,8 +15,44 @@ public class ProductPageRequest {
     @Max(value = 100, message = "error.page.size.max")
     private int pageSize = 10;
 
+    /**
+     * 名称过滤，不区分大小写的包含匹配
+     */
     private String name;
 
+    /**
+     * 分类过滤，不区分大小写完全匹配
+     */
+    private String category;
+
+    /**
+     * 价格下限（包含）
+     */
+    @DecimalMin(value = "0", message = "error.product.price.filter.min")
+    private BigDecimal minPrice;
+
+    /**
+     * 价格上限（包含）
+     */
+    @DecimalMin(value = "0", message = "error.product.price.filter.min")
+    private BigDecimal maxPrice;
+
+    /**
+     * 排序方式：newest（默认）、price_asc、price_desc，见 ProductSort；按价格排序时不支持游标分页
+     */
+    @Pattern(regexp = "(?i)newest|price_asc|price_desc", message = "error.product.sort.invalid")
+    private String sort = ProductSort.NEWEST.getValue();
+
+    /**
+     * 游标分页位置，为空时按 pageNum 进行偏移量分页
+     */
+    private String cursor;
+
+    /**
+     * 是否计算总数，无限滚动的客户端可以传 false 跳过计数
+     */
+    private boolean includeTotal = true;
+
     public int getPageNum() {
         return pageNum;
     }
@@ -36,4 +76,52 @@ public class ProductPageRequest {
     public void setName(String name) {
         this.name = name;
     }
-} 
\ No newline at end of file
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+}
\ No newline at end of file
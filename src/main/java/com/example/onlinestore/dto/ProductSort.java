@@ -0,0 +1,48 @@
+package com.example.onlinestore.dto;
+
+/**
+ * 商品列表排序方式
+ */
+public enum ProductSort {
+    /**
+     * 按创建时间从新到旧，支持游标分页
+     */
+    NEWEST("newest"),
+    /**
+     * 按价格从低到高，价格相同时按创建时间从旧到新
+     */
+    PRICE_ASC("price_asc"),
+    /**
+     * 按价格从高到低，价格相同时按创建时间从新到旧
+     */
+    PRICE_DESC("price_desc");
+
+    private final String value;
+
+    ProductSort(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isByPrice() {
+        return this != NEWEST;
+    }
+
+    /**
+     * 按请求参数确定排序方式，为空时按创建时间排序，不支持时返回 null
+     */
+    public static ProductSort of(String value) {
+        if (value == null || value.isEmpty()) {
+            return NEWEST;
+        }
+        for (ProductSort sort : values()) {
+            if (sort.value.equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        return null;
+    }
+}
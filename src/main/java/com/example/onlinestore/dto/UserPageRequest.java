@@ -11,6 +11,16 @@ public class UserPageRequest {
     @Max(value = 100, message = "error.page.size.max")
     private int pageSize = 10;
 
+    /**
+     * 游标分页位置，为空时按 pageNum 进行偏移量分页
+     */
+    private String cursor;
+
+    /**
+     * 是否计算总数，无限滚动的客户端可以传 false 跳过计数
+     */
+    private boolean includeTotal = true;
+
     public int getPageNum() {
         return pageNum;
     }
@@ -26,4 +36,20 @@ public class UserPageRequest {
     public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
     }
-} 
\ No newline at end of file
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.example.onlinestore.interceptor;
+
+import com.example.onlinestore.annotation.RequireAdmin;
+import com.example.onlinestore.cache.RolePermissionCache;
+import com.example.onlinestore.context.UserContext;
+import com.example.onlinestore.model.Permission;
+import com.example.onlinestore.model.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 管理员权限拦截器
+ *
+ * web.guard.mode 为 interceptor 时代替 AdminAuthAspect：启动时扫描全部处理方法，
+ * 记录每个方法 @RequireAdmin 要求的权限，请求时只按方法查表，Controller 不再需要 AOP 代理。
+ * 权限检查规则与 AdminAuthAspect 相同。
+ * 必须注册在 AuthInterceptor 之后，当前用户由 AuthInterceptor 设置。
+ *
+ * 没有权限时与 AdminAuthAspect 一样抛出带本地化错误消息的 IllegalArgumentException，两种模式的响应相同。
+ */
+@Component
+@ConditionalOnProperty(name = "web.guard.mode", havingValue = "interceptor")
+public class RequireAdminInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RequireAdminInterceptor.class);
+
+    @Value("${admin.auth.username}")
+    protected String adminUsername;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
+    // 方法 -> 需要的权限，不需要权限的方法为 empty
+    private final Map<Method, Optional<Permission>> requiredPermissions = new ConcurrentHashMap<>();
+
+    /**
+     * 上下文刷新完成后扫描所有请求映射
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        Collection<RequestMappingHandlerMapping> mappings = event.getApplicationContext()
+            .getBeansOfType(RequestMappingHandlerMapping.class).values();
+        for (RequestMappingHandlerMapping mapping : mappings) {
+            register(mapping.getHandlerMethods().values());
+        }
+        logger.info("管理员接口扫描完成，共 {} 个处理方法", requiredPermissions.size());
+    }
+
+    /**
+     * 记录处理方法需要的权限
+     */
+    public void register(Collection<HandlerMethod> handlerMethods) {
+        for (HandlerMethod handlerMethod : handlerMethods) {
+            requiredPermissions.put(handlerMethod.getMethod(), permissionOf(handlerMethod));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Optional<Permission> permission = requiredPermission(handlerMethod);
+        if (permission.isEmpty()) {
+            return true;
+        }
+
+        User currentUser = UserContext.getCurrentUser();
+        if (currentUser == null) {
+            logger.warn("访问被拒绝：未登录用户尝试访问管理员接口");
+            throw accessDenied();
+        }
+
+        // 配置的管理员直接放行，其余用户检查会话中的权限位图
+        if (!adminUsername.equals(currentUser.getUsername())
+                && !rolePermissionCache.hasPermission(currentUser, permission.get())) {
+            logger.warn("访问被拒绝：用户 {} 没有 {} 权限", currentUser.getUsername(), permission.get());
+            throw accessDenied();
+        }
+
+        logger.debug("用户 {} 访问接口成功", currentUser.getUsername());
+        return true;
+    }
+
+    private Optional<Permission> requiredPermission(HandlerMethod handlerMethod) {
+        // 启动后动态注册的映射不在扫描结果中，首次访问时补充
+        return requiredPermissions.computeIfAbsent(handlerMethod.getMethod(), method -> permissionOf(handlerMethod));
+    }
+
+    private static Optional<Permission> permissionOf(HandlerMethod handlerMethod) {
+        RequireAdmin requireAdmin = handlerMethod.getMethodAnnotation(RequireAdmin.class);
+        return requireAdmin == null ? Optional.empty() : Optional.of(requireAdmin.value());
+    }
+
+    private IllegalArgumentException accessDenied() {
+        return new IllegalArgumentException(messageSource.getMessage(
+            "error.access.denied", null, LocaleContextHolder.getLocale()));
+    }
+}
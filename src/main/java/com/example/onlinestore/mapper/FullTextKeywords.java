@@ -0,0 +1,26 @@
+package com.example.onlinestore.mapper;
+
+/**
+ * 名称全文索引（ngram_token_size=2）的关键字判断，由 ProductMapper.xml 的 nameFilter 调用
+ */
+public final class FullTextKeywords {
+
+    private FullTextKeywords() {
+    }
+
+    /**
+     * 关键字能否用全文索引预过滤：至少含有一个不带空白的两字符片段（ngram 的可索引词），
+     * 且不含 BOOLEAN MODE 短语的定界符双引号
+     */
+    public static boolean searchable(String keyword) {
+        if (keyword == null || keyword.indexOf('"') >= 0) {
+            return false;
+        }
+        for (int i = 1; i < keyword.length(); i++) {
+            if (!Character.isWhitespace(keyword.charAt(i - 1)) && !Character.isWhitespace(keyword.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
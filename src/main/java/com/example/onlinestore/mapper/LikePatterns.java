@@ -0,0 +1,26 @@
+package com.example.onlinestore.mapper;
+
+/**
+ * LIKE 模式的构造，由 ProductMapper.xml 的 nameFilter 调用
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    /**
+     * 按字面包含匹配关键字的 LIKE 模式：转义关键字中的 \、% 和 _，配合 ESCAPE '\\' 使用，
+     * 与商品缓存的名称包含匹配一致
+     */
+    public static String contains(String keyword) {
+        StringBuilder pattern = new StringBuilder(keyword.length() + 2).append('%');
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -1,20 +1,53 @@
 package com.example.onlinestore.mapper;
 
+import com.example.onlinestore.dto.ProductSort;
 import com.example.onlinestore.model.Product;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
 public interface ProductMapper {
     void insertProduct(Product product);
     
+    /**
+     * 按偏移量分页查询，sort 为 null 时按 (created_at DESC, id DESC) 排序
+     */
     List<Product> findWithPagination(@Param("name") String name, 
+                                    @Param("category") String category,
+                                    @Param("minPrice") BigDecimal minPrice,
+                                    @Param("maxPrice") BigDecimal maxPrice,
+                                    @Param("sort") ProductSort sort,
                                     @Param("offset") int offset, 
                                     @Param("limit") int limit);
     
-    long countTotal(@Param("name") String name);
+    List<Product> findAfterCursor(@Param("name") String name,
+                                  @Param("category") String category,
+                                  @Param("minPrice") BigDecimal minPrice,
+                                  @Param("maxPrice") BigDecimal maxPrice,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  @Param("limit") int limit);
 
-    List<Product> findAll();
+    long countTotal(@Param("name") String name,
+                    @Param("category") String category,
+                    @Param("minPrice") BigDecimal minPrice,
+                    @Param("maxPrice") BigDecimal maxPrice);
+
+    /**
+     * 按 (created_at DESC, id DESC) 流式读取最新的 limit 个商品，逐行交给 handler，不在内存中汇总结果
+     */
+    void scanNewest(@Param("limit") int limit, ResultHandler<Product> handler);
+
+    /**
+     * 按 (created_at DESC, id DESC) 流式读取全部商品
+     *
+     * 返回的 Cursor 需要在事务内读取并关闭；读取期间该连接不能执行其他查询。
+     */
+    Cursor<Product> streamAll();
 } 
\ No newline at end of file
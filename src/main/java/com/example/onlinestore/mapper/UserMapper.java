@@ -4,6 +4,7 @@ import com.example.onlinestore.model.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -11,11 +12,18 @@ public interface UserMapper {
     
     User findByUsername(String username);
     
-    int updateUserToken(User user);
-
-    void insertUser(User user);
+    /**
+     * 插入用户，用户名已存在时更新token
+     *
+     * @return 影响行数，1 表示插入了新用户，2 表示更新了已有用户
+     */
+    int upsertUser(User user);
     
     List<User> findAllWithPagination(@Param("offset") int offset, @Param("limit") int limit);
+
+    List<User> findAllAfterCursor(@Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  @Param("limit") int limit);
     
     long countTotal();
 
@@ -0,0 +1,33 @@
+package com.example.onlinestore.model;
+
+/**
+ * 接口权限
+ *
+ * 每个权限占用用户权限位图中的一位（1L << ordinal），最多 64 个；
+ * 会话中保存的是位图，调整顺序会改变已有会话的含义，新增权限只能追加在末尾。
+ */
+public enum Permission {
+    /**
+     * 管理员，@RequireAdmin 未指定权限时使用
+     */
+    ADMIN,
+    /**
+     * 创建、修改商品
+     */
+    PRODUCT_WRITE,
+    /**
+     * 查看用户列表
+     */
+    USER_READ;
+
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * 所有权限的位图
+     */
+    public static long all() {
+        return (1L << values().length) - 1;
+    }
+}
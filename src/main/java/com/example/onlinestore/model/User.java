@@ -1,6 +1,8 @@
 package com.example.onlinestore.model;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Set;
 
 public class User {
     private Long id;
@@ -9,6 +11,11 @@ public class User {
     private LocalDateTime tokenExpireTime;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // 登录时解析的角色和权限位图，随会话保存，不落库
+    private Set<String> roles = Collections.emptySet();
+    private long permissions;
+    // 解析权限时角色配置的版本，配置刷新后据此重新解析；为 0 表示尚未解析
+    private volatile long permissionRevision;
 
     public Long getId() {
         return id;
@@ -57,4 +64,28 @@ public class User {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-} 
\ No newline at end of file
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Set<String> roles) {
+        this.roles = roles;
+    }
+
+    public long getPermissions() {
+        return permissions;
+    }
+
+    public void setPermissions(long permissions) {
+        this.permissions = permissions;
+    }
+
+    public long getPermissionRevision() {
+        return permissionRevision;
+    }
+
+    public void setPermissionRevision(long permissionRevision) {
+        this.permissionRevision = permissionRevision;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.ProductFileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+    /**
+     * 流式导出全部商品
+     *
+     * @param format 导出格式
+     * @param output 输出流，按行写入，不会整体缓冲
+     * @return 导出的商品数量
+     * @throws IOException 写入输出流失败
+     */
+    long exportProducts(ProductFileFormat format, OutputStream output) throws IOException;
+}
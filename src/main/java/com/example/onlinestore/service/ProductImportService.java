@@ -0,0 +1,20 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.ProductFileFormat;
+import com.example.onlinestore.dto.ProductImportResult;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface ProductImportService {
+    /**
+     * 从请求体流式读取并导入商品
+     *
+     * @param reader 请求体，逐行读取，不会整体缓冲
+     * @param format 请求体格式
+     * @return 按批次汇总的导入结果
+     * @throws IllegalArgumentException CSV 表头缺少必需的列
+     * @throws IOException 读取请求体失败
+     */
+    ProductImportResult importProducts(Reader reader, ProductFileFormat format) throws IOException;
+}
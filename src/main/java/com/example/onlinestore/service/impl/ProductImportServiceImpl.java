@@ -0,0 +1,240 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.cache.ProductCache;
+import com.example.onlinestore.cache.ProductChangeFeed;
+import com.example.onlinestore.cache.TotalCountCache;
+import com.example.onlinestore.dto.CreateProductRequest;
+import com.example.onlinestore.dto.ProductFileFormat;
+import com.example.onlinestore.dto.ProductImportResult;
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.service.ProductImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 商品批量导入
+ *
+ * 请求体逐行读取、逐行验证，凑满一个批次后在独立事务中写入：
+ * <ul>
+ *   <li>使用 ExecutorType.BATCH 的 SqlSession，一个批次只在提交前与数据库交互一次；
+ *       数据源开启 rewriteBatchedStatements 后，驱动会把批次改写为多行 INSERT</li>
+ *   <li>某个批次写入失败只回滚该批次，之前已提交的批次保留，后续批次继续导入</li>
+ *   <li>内存中最多只保留一个批次的商品</li>
+ * </ul>
+ *
+ * 配置示例：
+ * <pre>
+ * product:
+ *   import:
+ *     chunk-size: 1000
+ *     max-errors: 100
+ * </pre>
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    @Value("${product.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${product.import.max-errors:100}")
+    private int maxErrors;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private TotalCountCache totalCountCache;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    private SqlSessionTemplate batchSqlSession;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        // 不注册为 Bean，否则会替换 MyBatis 自动配置的默认 SqlSessionTemplate
+        batchSqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ProductImportResult importProducts(Reader reader, ProductFileFormat format) throws IOException {
+        ProductRowReader rows;
+        try {
+            rows = new ProductRowReader(reader, format, objectMapper);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.product.import.column.missing", new Object[]{e.getMessage()}, LocaleContextHolder.getLocale()));
+        }
+
+        ImportRun run = new ImportRun(LocaleContextHolder.getLocale());
+        ProductRowReader.Row row;
+        while ((row = rows.next()) != null) {
+            run.accept(row);
+        }
+        run.flush();
+
+        ProductImportResult result = run.result;
+        logger.info("商品导入完成，共 {} 行，成功 {}，失败 {}",
+            result.getTotalRows(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private String validate(CreateProductRequest request, Locale locale) {
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> messageSource.getMessage(violation.getMessage(), null, locale))
+            .collect(Collectors.joining(", "));
+    }
+
+    private static Product toProduct(CreateProductRequest request) {
+        Product product = new Product();
+        product.setName(request.getName());
+        product.setCategory(request.getCategory());
+        product.setPrice(request.getPrice());
+        return product;
+    }
+
+    /**
+     * 一次导入的进度，只在调用线程内使用
+     */
+    private final class ImportRun {
+        private final Locale locale;
+        private final ProductImportResult result = new ProductImportResult();
+        private List<Product> products = new ArrayList<>(chunkSize);
+        private ProductImportResult.ChunkReport chunk;
+        private int reportedErrors;
+
+        private ImportRun(Locale locale) {
+            this.locale = locale;
+        }
+
+        void accept(ProductRowReader.Row row) {
+            if (chunk == null) {
+                chunk = new ProductImportResult.ChunkReport();
+                chunk.setChunk(result.getChunks().size() + 1);
+                chunk.setFirstLine(row.line);
+                result.getChunks().add(chunk);
+            }
+            chunk.setLastLine(row.line);
+            result.setTotalRows(result.getTotalRows() + 1);
+
+            String error = row.error != null
+                ? messageSource.getMessage("error.product.import.row.invalid", new Object[]{row.error}, locale)
+                : validate(row.request, locale);
+            if (error != null) {
+                reject(1, new ProductImportResult.RowError(row.line, error));
+            } else {
+                products.add(toProduct(row.request));
+            }
+
+            if (products.size() + chunk.getFailed() >= chunkSize) {
+                flush();
+            }
+        }
+
+        /**
+         * 在独立事务中写入当前批次
+         */
+        void flush() {
+            if (chunk == null) {
+                return;
+            }
+            if (!products.isEmpty()) {
+                write(products);
+            }
+            logger.info("商品导入进度：第 {} 批，行 {}-{}，成功 {}，失败 {}", chunk.getChunk(),
+                chunk.getFirstLine(), chunk.getLastLine(), chunk.getImported(), chunk.getFailed());
+            products = new ArrayList<>(chunkSize);
+            chunk = null;
+        }
+
+        private void write(List<Product> batch) {
+            // 与数据库 DATETIME 的秒级精度保持一致，保证缓存与数据库的排序和游标相同
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            for (Product product : batch) {
+                product.setCreatedAt(now);
+                product.setUpdatedAt(now);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ProductMapper mapper = batchSqlSession.getMapper(ProductMapper.class);
+                    for (Product product : batch) {
+                        mapper.insertProduct(product);
+                    }
+                    batchSqlSession.flushStatements();
+                    totalCountCache.increment(TotalCountCache.PRODUCTS, batch.size());
+                });
+            } catch (RuntimeException e) {
+                logger.error("商品导入第 {} 批写入失败，行 {}-{}", chunk.getChunk(), chunk.getFirstLine(),
+                    chunk.getLastLine(), e);
+                reject(batch.size(), new ProductImportResult.RowError(chunk.getFirstLine(), messageSource.getMessage(
+                    "error.product.import.chunk.failed",
+                    new Object[]{chunk.getFirstLine(), chunk.getLastLine()}, locale)));
+                return;
+            }
+            chunk.setImported(batch.size());
+            result.setImported(result.getImported() + batch.size());
+            // 预热尚未完成时同样加入，预热读到的旧商品会排在它们之前；批次已提交，立即通知其他节点
+            productCache.putAll(batch);
+            productChangeFeed.publish(batch);
+        }
+
+        private void reject(int rows, ProductImportResult.RowError error) {
+            chunk.setFailed(chunk.getFailed() + rows);
+            result.setFailed(result.getFailed() + rows);
+            if (reportedErrors < maxErrors) {
+                chunk.getErrors().add(error);
+                reportedErrors++;
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.dto.CreateProductRequest;
+import com.example.onlinestore.dto.ProductFileFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 逐条读取导入请求体，每次只持有当前一条记录
+ *
+ * CSV 支持双引号包裹的字段和 "" 转义，引号内的换行属于字段内容，一条记录可以跨越多行
+ * （与导出格式一致，换行统一读作 \n）；空行会被跳过。记录的行号为其第一行的行号。
+ */
+class ProductRowReader {
+
+    static final String[] CSV_COLUMNS = {"name", "category", "price"};
+
+    /**
+     * 引号未闭合时最多读取的字符数，避免缺少右引号时把后续内容全部读入一条记录
+     */
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final ProductFileFormat format;
+    private final ObjectMapper objectMapper;
+
+    // CSV 各列在表头中的位置，顺序与 CSV_COLUMNS 相同
+    private int[] columns;
+    private long lineNumber;
+
+    ProductRowReader(Reader reader, ProductFileFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == ProductFileFormat.CSV) {
+            readHeader();
+        }
+    }
+
+    /**
+     * 读取下一条记录，请求体结束时返回 null
+     */
+    Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        long firstLine = lineNumber;
+
+        try {
+            if (format == ProductFileFormat.CSV) {
+                return new Row(firstLine, parseCsv(continueQuoted(line)), null);
+            }
+            return new Row(firstLine, parseJson(line), null);
+        } catch (JsonProcessingException e) {
+            return new Row(firstLine, null, e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return new Row(firstLine, null, e.getMessage());
+        }
+    }
+
+    /**
+     * 引号未闭合时继续读取后续行，直到引号闭合；请求体结束或超出长度时由 splitCsv 报告未闭合的引号
+     */
+    private String continueQuoted(String line) throws IOException {
+        boolean open = openQuote(line);
+        if (!open) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        while (open && record.length() <= MAX_RECORD_LENGTH) {
+            String next = reader.readLine();
+            if (next == null) {
+                break;
+            }
+            lineNumber++;
+            record.append('\n').append(next);
+            // 引号个数的奇偶可以逐行累计
+            open ^= openQuote(next);
+        }
+        return record.toString();
+    }
+
+    /**
+     * 引号个数为奇数时最后一个字段的引号未闭合：字段内的 "" 成对出现，不改变奇偶
+     */
+    static boolean openQuote(String line) {
+        boolean open = false;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        lineNumber++;
+        // Excel 导出的 CSV 带有 UTF-8 BOM
+        List<String> names = header == null ? List.of() : splitCsv(header.replace("\uFEFF", ""));
+        columns = new int[CSV_COLUMNS.length];
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.size(); j++) {
+                if (CSV_COLUMNS[i].equals(names.get(j).trim().toLowerCase(Locale.ROOT))) {
+                    columns[i] = j;
+                }
+            }
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException(CSV_COLUMNS[i]);
+            }
+        }
+    }
+
+    private CreateProductRequest parseJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, CreateProductRequest.class);
+    }
+
+    private CreateProductRequest parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        CreateProductRequest request = new CreateProductRequest();
+        request.setName(field(fields, columns[0]));
+        request.setCategory(field(fields, columns[1]));
+        String price = field(fields, columns[2]);
+        if (price != null) {
+            try {
+                request.setPrice(new BigDecimal(price.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("price: " + price);
+            }
+        }
+        return request;
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * 读取到的一行，解析失败时 request 为 null，error 为原因
+     */
+    static final class Row {
+        final long line;
+        final CreateProductRequest request;
+        final String error;
+
+        Row(long line, CreateProductRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+    }
+}
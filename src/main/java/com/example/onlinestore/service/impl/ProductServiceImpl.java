@@ -1,22 +1,35 @@
 package com.example.onlinestore.service.impl;
 
+import com.example.onlinestore.cache.ProductCache;
+import com.example.onlinestore.cache.ProductCatalog;
+import com.example.onlinestore.cache.ProductChangeFeed;
+import com.example.onlinestore.cache.ProductPageCache;
+import com.example.onlinestore.cache.TotalCountCache;
 import com.example.onlinestore.dto.CreateProductRequest;
+import com.example.onlinestore.dto.PageCursor;
 import com.example.onlinestore.dto.PageResponse;
 import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.dto.ProductSort;
 import com.example.onlinestore.mapper.ProductMapper;
 import com.example.onlinestore.model.Product;
 import com.example.onlinestore.service.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -25,10 +38,23 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ProductMapper productMapper;
 
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private TotalCountCache totalCountCache;
+
     /**
-     * 商品缓存，key为商品id，value为商品信息，当创建商品时会自动追加该缓存，超过最大容量后，会删除最旧的商品
+     * 商品缓存，当创建商品时会自动追加该缓存，超过最大容量后，会删除最早加入的商品
      */
-    private Map<Long, Product> producteCache = new HashMap<>();
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private ProductPageCache productPageCache;
 
     @Override
     @Transactional
@@ -39,94 +65,198 @@ public class ProductServiceImpl implements ProductService {
         product.setName(request.getName());
         product.setCategory(request.getCategory());
         product.setPrice(request.getPrice());
-        product.setCreatedAt(LocalDateTime.now());
-        product.setUpdatedAt(LocalDateTime.now());
+        // 与数据库 DATETIME 的秒级精度保持一致，保证缓存与数据库的排序和游标相同
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now);
 
         productMapper.insertProduct(product);
         logger.info("商品创建成功: {}", product.getName());
 
-        // 超出容量后，删除最旧的商品
-        if (producteCache.size() > 999) {
-            logger.info("商品缓存容量超出限制，删除最旧的商品");
-            producteCache.remove(producteCache.keySet().iterator().next());
-        }
+        totalCountCache.increment(TotalCountCache.PRODUCTS, 1);
 
-        // 加入缓存
-        producteCache.put(product.getId(), product);
+        // 事务提交后加入缓存，超出容量后由缓存淘汰最早加入的商品；回滚时不加入。同样在提交后通知其他节点
+        afterCommit(() -> productCache.put(product));
+        productChangeFeed.publish(Collections.singletonList(product));
         return product;
     }
 
+    /**
+     * 在当前事务提交后执行；没有事务时立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     @Override
     public PageResponse<Product> listProducts(ProductPageRequest request) {
-        logger.info("开始查询商品列表，页码：{}，每页大小：{}，商品名称：{}", 
-            request.getPageNum(), request.getPageSize(), request.getName());
-        
-        // 加载缓存
-        if (producteCache.size() == 0) {
-            List<Product> products = productMapper.findAll();
-            logger.info("从数据库查询全量商品列表，共 {} 条记录", products.size());
-
-            // 更新缓存
-            int i = 0;
-            for (Product product : products) {
-                i++;
-                producteCache.put(product.getId(), product);
-                if (i > 999) {
-                    break;
-                }                
-            }
+        logger.info("开始查询商品列表，页码：{}，每页大小：{}，商品名称：{}，分类：{}，价格：{} - {}，排序：{}，游标：{}",
+            request.getPageNum(), request.getPageSize(), request.getName(), request.getCategory(),
+            request.getMinPrice(), request.getMaxPrice(), request.getSort(), request.getCursor());
+        ProductSort sort = resolveSort(request.getSort());
+        PageCursor cursor = resolveCursor(request.getCursor());
+        if (cursor != null && sort.isByPrice()) {
+            // 游标只记录 (created_at, id)，无法定位按价格排序的位置
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.page.cursor.sort.unsupported", null, LocaleContextHolder.getLocale()));
         }
-
-        // 计算分页参数
+        BigDecimal minPrice = request.getMinPrice();
+        BigDecimal maxPrice = request.getMaxPrice();
+        boolean priceFiltered = minPrice != null || maxPrice != null;
+        
+        // 计算分页参数，多取一条用于判断是否还有下一页
         int offset = (request.getPageNum() - 1) * request.getPageSize();
         int limit = request.getPageSize();
-        PageResponse<Product> response = new PageResponse<>();
+        List<Product> records;
+        long total;
 
-        if (producteCache.size() < 1000) {
-            // 先查询商品缓存，进行名称精确查询
-            if (request.getName() != null) {
-                logger.info("进行名称精确查询，先查询缓存");
-                for (Map.Entry<Long, Product> entry : producteCache.entrySet()) {
-                    if (entry.getValue().getName() == request.getName()) {
-                        List<Product> p = new ArrayList<>();
-                        p.add(entry.getValue());
-                        response.setRecords(p);response.setTotal(producteCache.size());response.setPageNum(request.getPageNum());response.setPageSize(request.getPageSize());
-                        // return response;
-                    }
-                }
-            }
+        // 缓存由 ProductCacheWarmup 在后台预热，预热完成且容纳全部商品时才由缓存完成查询
+        if (productCache.isLoaded() && productCache.size() < productCache.getCapacity()) {
+            productCache.recordHit();
+            ProductCatalog catalog = productCache.catalog();
+            List<Product> candidates;
 
-            // 进行缓存的列表查询
-            int i = 0;
-            List<Product> p = new ArrayList<>();
-            logger.info("进行缓存的列表查询");
-            for (Map.Entry<Long, Product> entry : producteCache.entrySet()) {
-                if (i < offset || i >= offset + limit){
-                    i++;
-                    continue;
-                }
+            boolean byPrice = priceFiltered || sort.isByPrice();
+            boolean descending = sort == ProductSort.PRICE_DESC;
 
-                p.add(entry.getValue());    
+            if (!StringUtils.hasLength(request.getName()) && !StringUtils.hasLength(request.getCategory())) {
+                if (byPrice) {
+                    // 只按价格过滤或排序时使用快照的价格索引，二分查找定位价格区间
+                    logger.info("进行缓存的价格查询");
+                    candidates = catalog.priceRange(minPrice, maxPrice, sort.isByPrice(), descending);
+                } else {
+                    // 无过滤条件时直接在快照上截取，总数为快照大小
+                    logger.info("进行缓存的列表查询");
+                    candidates = catalog.all();
+                }
+            } else {
+                if (!StringUtils.hasLength(request.getName())) {
+                    // 只按分类过滤时直接使用快照的分类索引，总数为该分类的大小
+                    logger.info("进行缓存的分类查询");
+                    candidates = catalog.category(request.getCategory());
+                } else {
+                    // 通过名称倒排索引查询，与数据库的 LIKE 查询保持一致：不区分大小写的名称包含匹配
+                    logger.info("进行缓存的名称模糊查询");
+                    candidates = productCache.search(request.getName(), request.getCategory());
+                }
+                if (byPrice) {
+                    // 名称或分类的查询结果再按价格过滤、排序
+                    candidates = ProductCatalog.priceRange(candidates, minPrice, maxPrice, sort.isByPrice(), descending);
+                }
             }
 
-            response.setRecords(p);response.setTotal(producteCache.size());response.setPageNum(request.getPageNum());response.setPageSize(request.getPageSize());
-            return response;
+            records = cursor == null
+                ? ProductCatalog.page(candidates, offset, limit + 1)
+                : ProductCatalog.after(candidates, cursor.getCreatedAt(), cursor.getId(), limit + 1);
+            total = request.isIncludeTotal() ? candidates.size() : PageResponse.TOTAL_NOT_COUNTED;
         } else {
-            logger.warn("缓存容量超出限制，进行数据库查询");
-            // 查询数据
-            List<Product> products = productMapper.findWithPagination(request.getName(), offset, limit);
-            long total = productMapper.countTotal(request.getName());
-
-            logger.info("查询到 {} 条商品记录", products.size());
+            if (productCache.isLoaded()) {
+                logger.warn("缓存容量超出限制，进行数据库查询");
+            } else {
+                logger.info("商品缓存尚未完成预热，进行数据库查询");
+            }
+            productCache.recordMiss();
+            // 查询数据，按页码分页的结果在各节点之间共享缓存
+            String name = request.getName();
+            String category = StringUtils.hasLength(request.getCategory()) ? request.getCategory() : null;
+            String filter = filterKey(name, category, minPrice, maxPrice);
+            boolean includeTotal = request.isIncludeTotal();
+            if (cursor == null) {
+                ProductPageCache.Page page = productPageCache.get(sort.getValue(), filter, offset, limit + 1, includeTotal,
+                    () -> new ProductPageCache.Page(
+                        productMapper.findWithPagination(name, category, minPrice, maxPrice, sort, offset, limit + 1),
+                        includeTotal ? countProducts(name, category, minPrice, maxPrice) : PageResponse.TOTAL_NOT_COUNTED));
+                records = page.getRecords();
+                total = includeTotal ? page.getTotal() : PageResponse.TOTAL_NOT_COUNTED;
+            } else {
+                records = productMapper.findAfterCursor(
+                    name, category, minPrice, maxPrice, cursor.getCreatedAt(), cursor.getId(), limit + 1);
+                total = includeTotal ? countProducts(name, category, minPrice, maxPrice) : PageResponse.TOTAL_NOT_COUNTED;
+            }
 
-            // 构建响应
-            response.setRecords(products);
-            response.setTotal(total);
+            logger.info("查询到 {} 条商品记录", records.size());
         }
 
+        // 构建响应
+        PageResponse<Product> response = new PageResponse<>();
+        if (records.size() > limit) {
+            records = new ArrayList<>(records.subList(0, limit));
+            if (!sort.isByPrice()) {
+                Product last = records.get(limit - 1);
+                response.setNextCursor(new PageCursor(last.getCreatedAt(), last.getId()).encode());
+            }
+        }
+        response.setRecords(records);
+        response.setTotal(total);
         response.setPageNum(request.getPageNum());
         response.setPageSize(request.getPageSize());
 
         return response;
     }
-} 
\ No newline at end of file
+
+    private long countProducts(String name, String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!StringUtils.hasLength(name) && category == null && minPrice == null && maxPrice == null) {
+            return totalCountCache.exact(TotalCountCache.PRODUCTS,
+                () -> productMapper.countTotal(null, null, null, null));
+        }
+        return totalCountCache.filtered(TotalCountCache.PRODUCTS, filterKey(name, category, minPrice, maxPrice),
+            () -> productMapper.countTotal(name, category, minPrice, maxPrice));
+    }
+
+    /**
+     * 过滤条件的规范化表示，用作总数缓存与分页缓存的 key
+     *
+     * 无过滤条件时为空字符串；否则依次为名称、分类、价格下限、价格上限，每项写作“长度:值”，
+     * 任何取值都不会让两组不同的过滤条件得到同一个 key。价格去掉末尾的 0，10 与 10.00 使用同一个 key
+     */
+    private static String filterKey(String name, String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!StringUtils.hasLength(name) && category == null && minPrice == null && maxPrice == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder();
+        appendPart(key, name);
+        appendPart(key, category);
+        appendPart(key, plain(minPrice));
+        appendPart(key, plain(maxPrice));
+        return key.toString();
+    }
+
+    private static void appendPart(StringBuilder key, String value) {
+        String part = value == null ? "" : value;
+        key.append(part.length()).append(':').append(part);
+    }
+
+    private static String plain(BigDecimal price) {
+        return price == null ? "" : price.stripTrailingZeros().toPlainString();
+    }
+
+    private ProductSort resolveSort(String value) {
+        ProductSort sort = ProductSort.of(value);
+        if (sort == null) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.product.sort.invalid", null, LocaleContextHolder.getLocale()));
+        }
+        return sort;
+    }
+
+    private PageCursor resolveCursor(String token) {
+        if (!StringUtils.hasLength(token)) {
+            return null;
+        }
+        PageCursor cursor = PageCursor.decode(token);
+        if (cursor == null) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.page.cursor.invalid", null, LocaleContextHolder.getLocale()));
+        }
+        return cursor;
+    }
+}
\ No newline at end of file
@@ -1,15 +1,26 @@
 package com.example.onlinestore.service.impl;
 
+import com.example.onlinestore.cache.CredentialCache;
+import com.example.onlinestore.cache.RolePermissionCache;
+import com.example.onlinestore.cache.SingleFlight;
+import com.example.onlinestore.cache.TokenCache;
+import com.example.onlinestore.cache.TotalCountCache;
 import com.example.onlinestore.dto.LoginRequest;
 import com.example.onlinestore.dto.LoginResponse;
+import com.example.onlinestore.dto.PageCursor;
 import com.example.onlinestore.dto.PageResponse;
 import com.example.onlinestore.dto.UserPageRequest;
 import com.example.onlinestore.dto.UserVO;
 import com.example.onlinestore.model.User;
 import com.example.onlinestore.mapper.UserMapper;
 import com.example.onlinestore.service.UserService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.example.onlinestore.session.SessionCodec;
+import com.example.onlinestore.session.SessionWriter;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,27 +29,27 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
-    private final ObjectMapper objectMapper;
-
-    public UserServiceImpl() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-    }
-
     @Value("${admin.auth.username}")
     private String adminUsername;
 
@@ -52,9 +63,19 @@ public class UserServiceImpl implements UserService {
     private static final String TOKEN_PREFIX = "token:";
     private static final long TOKEN_EXPIRE_DAYS = 1;
 
+    // 合并同一 token 的并发查询、同一凭证的并发认证
+    private final SingleFlight<String, User> tokenLookups = new SingleFlight<>();
+    private final SingleFlight<Credentials, Boolean> authentications = new SingleFlight<>();
+
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private CircuitBreaker userServiceCircuitBreaker;
+
+    @Autowired
+    private Bulkhead userServiceBulkhead;
+
     @Autowired
     private UserMapper userMapper;
 
@@ -64,8 +85,38 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private MessageSource messageSource;
 
+    @Autowired
+    private TotalCountCache totalCountCache;
+
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
+    @Autowired
+    private SessionCodec sessionCodec;
+
+    @Autowired
+    private SessionWriter sessionWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 只有写入用户的一步在事务中执行，调用 user-service 和等待合并的认证时不占用数据库连接
+     */
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     @Override
-    @Transactional
     public LoginResponse login(LoginRequest request) {
         // 先检查是否是管理员用户
         if (adminUsername.equals(request.getUsername())) {
@@ -80,18 +131,39 @@ public class UserServiceImpl implements UserService {
             }
         }
 
-        // 非管理员用户，调用user-service进行认证
+        // 非管理员用户，近期验证通过的凭证直接放行，否则调用user-service进行认证
+        if (!credentialCache.isVerified(request.getUsername(), request.getPassword())) {
+            // 同一用户名和密码的并发重试只调用一次user-service
+            Credentials credentials = new Credentials(request.getUsername(), request.getPassword());
+            if (!authentications.execute(credentials, () -> authenticate(request))) {
+                throw new IllegalArgumentException(messageSource.getMessage(
+                    "error.invalid.credentials", null, LocaleContextHolder.getLocale()));
+            }
+            credentialCache.markVerified(request.getUsername(), request.getPassword());
+        }
+
+        return createLoginResponse(request.getUsername());
+    }
+
+    /**
+     * 调用user-service验证用户名和密码
+     */
+    private boolean authenticate(LoginRequest request) {
         String authUrl = UriComponentsBuilder.fromHttpUrl(userServiceBaseUrl)
             .path(AUTH_PATH)
             .toUriString();
-        Boolean isAuthenticated = restTemplate.postForObject(authUrl, request, Boolean.class);
-        
-        if (isAuthenticated == null || !isAuthenticated) {
-            throw new IllegalArgumentException(messageSource.getMessage(
-                "error.invalid.credentials", null, LocaleContextHolder.getLocale()));
+        Boolean isAuthenticated;
+        try {
+            isAuthenticated = Bulkhead.decorateSupplier(userServiceBulkhead,
+                CircuitBreaker.decorateSupplier(userServiceCircuitBreaker,
+                    () -> restTemplate.postForObject(authUrl, request, Boolean.class))).get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // 熔断或并发已满时快速失败，不再等待user-service
+            logger.warn("user-service暂不可用: {}", e.getMessage());
+            throw new IllegalStateException(messageSource.getMessage(
+                "error.user.service.unavailable", null, LocaleContextHolder.getLocale()), e);
         }
-
-        return createLoginResponse(request.getUsername());
+        return Boolean.TRUE.equals(isAuthenticated);
     }
 
     private LoginResponse createLoginResponse(String username) {
@@ -99,43 +171,52 @@ public class UserServiceImpl implements UserService {
         String token = UUID.randomUUID().toString();
         LocalDateTime expireTime = LocalDateTime.now().plusDays(TOKEN_EXPIRE_DAYS);
 
-        // 查找或创建用户
-        User user = userMapper.findByUsername(username);
-        if (user == null) {
-            // 用户不存在，创建新用户
-            user = new User();
-            user.setUsername(username);
-            user.setToken(token);
-            user.setTokenExpireTime(expireTime);
-            user.setCreatedAt(LocalDateTime.now());
-            user.setUpdatedAt(LocalDateTime.now());
-            userMapper.insertUser(user);
+        // 创建用户或更新已有用户的token
+        LocalDateTime now = LocalDateTime.now();
+        User user = new User();
+        user.setUsername(username);
+        user.setToken(token);
+        user.setTokenExpireTime(expireTime);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        transactionTemplate.executeWithoutResult(status -> saveSession(user));
+
+        // 返回响应
+        LoginResponse response = new LoginResponse();
+        response.setToken(token);
+        response.setExpireTime(expireTime);
+        return response;
+    }
+
+    /**
+     * 写入用户并登记会话，在事务中调用，会话与计数在事务提交后生效
+     */
+    private void saveSession(User user) {
+        String username = user.getUsername();
+        String token = user.getToken();
+        if (userMapper.upsertUser(user) == 1) {
+            totalCountCache.increment(TotalCountCache.USERS, 1);
             logger.info("创建新用户: {}", username);
         } else {
-            // 更新现有用户的token
-            user.setToken(token);
-            user.setTokenExpireTime(expireTime);
-            user.setUpdatedAt(LocalDateTime.now());
-            userMapper.updateUserToken(user);
+            // 已有用户的创建时间不是本次登录时间，不放入会话
+            user.setCreatedAt(null);
             logger.info("更新用户token: {}", username);
         }
+        // 角色和权限在登录时解析一次，随会话保存
+        rolePermissionCache.resolve(user);
 
         try {
-            // 将用户信息转换为JSON并保存到Redis
+            // 事务提交后异步批量写入Redis，不在持有数据库连接时等待Redis；
+            // 提交后、写入Redis前本节点即可识别新token，事务回滚时不缓存；
+            // 写入后清除各节点可能缓存的无效 token 条目
             String redisKey = TOKEN_PREFIX + token;
-            String userJson = objectMapper.writeValueAsString(user);
-            redisTemplate.opsForValue().set(redisKey, userJson, TOKEN_EXPIRE_DAYS, TimeUnit.DAYS);
-            logger.info("用户信息已缓存到Redis: {}", username);
+            String session = sessionCodec.encode(user);
+            sessionWriter.write(redisKey, session, Duration.ofDays(TOKEN_EXPIRE_DAYS),
+                () -> tokenCache.put(token, user), () -> tokenCache.invalidate(token));
         } catch (Exception e) {
             logger.error("缓存用户信息失败", e);
             // 继续处理，因为这不是致命错误
         }
-
-        // 返回响应
-        LoginResponse response = new LoginResponse();
-        response.setToken(token);
-        response.setExpireTime(expireTime);
-        return response;
     }
 
     private UserVO convertToVO(User user) {
@@ -152,21 +233,39 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public PageResponse<UserVO> listUsers(UserPageRequest request) {
-        // 计算分页参数
+        // 计算分页参数，多取一条用于判断是否还有下一页
         int offset = (request.getPageNum() - 1) * request.getPageSize();
         int limit = request.getPageSize();
 
-        // 查询数据
-        List<User> users = userMapper.findAllWithPagination(offset, limit);
-        long total = userMapper.countTotal();
+        // 查询数据，带游标时从游标位置之后读取
+        List<User> users;
+        if (StringUtils.hasLength(request.getCursor())) {
+            PageCursor cursor = PageCursor.decode(request.getCursor());
+            if (cursor == null) {
+                throw new IllegalArgumentException(messageSource.getMessage(
+                    "error.page.cursor.invalid", null, LocaleContextHolder.getLocale()));
+            }
+            users = userMapper.findAllAfterCursor(cursor.getCreatedAt(), cursor.getId(), limit + 1);
+        } else {
+            users = userMapper.findAllWithPagination(offset, limit + 1);
+        }
+        long total = request.isIncludeTotal()
+            ? totalCountCache.exact(TotalCountCache.USERS, userMapper::countTotal)
+            : PageResponse.TOTAL_NOT_COUNTED;
+
+        // 构建响应
+        PageResponse<UserVO> response = new PageResponse<>();
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            User last = users.get(limit - 1);
+            response.setNextCursor(new PageCursor(last.getCreatedAt(), last.getId()).encode());
+        }
 
         // 转换为VO
         List<UserVO> userVOs = users.stream()
                 .map(this::convertToVO)
                 .collect(Collectors.toList());
 
-        // 构建响应
-        PageResponse<UserVO> response = new PageResponse<>();
         response.setRecords(userVOs);
         response.setTotal(total);
         response.setPageNum(request.getPageNum());
@@ -177,17 +276,66 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getUserByToken(String token) {
+        // 先查本地近端缓存，包括缓存的无效 token
+        TokenCache.Entry cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached.getUser();
+        }
+
+        // 同一 token 的并发请求共享一次Redis查询
+        return tokenLookups.execute(token, () -> loadUserByToken(token));
+    }
+
+    private User loadUserByToken(String token) {
         try {
             String redisKey = TOKEN_PREFIX + token;
-            String userJson = redisTemplate.opsForValue().get(redisKey);
-            if (userJson == null) {
+            String session = redisTemplate.opsForValue().get(redisKey);
+            if (session == null) {
                 logger.warn("无效的token: {}", token);
+                tokenCache.putInvalid(token);
                 return null;
             }
-            return objectMapper.readValue(userJson, User.class);
+            User user = sessionCodec.decode(session);
+            tokenCache.put(token, user);
+            return user;
         } catch (Exception e) {
             logger.error("从Redis获取用户信息失败", e);
             return null;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 并发认证的合并 key：用户名与密码的 SHA-256 摘要分别比较，不会因拼接产生歧义，也不在内存中保留明文密码
+     */
+    private static final class Credentials {
+        private final String username;
+        private final byte[] passwordDigest;
+
+        private Credentials(String username, String password) {
+            this.username = username;
+            try {
+                this.passwordDigest = password == null ? null : MessageDigest.getInstance("SHA-256")
+                    .digest(password.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("计算密码摘要失败", e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Credentials)) {
+                return false;
+            }
+            Credentials other = (Credentials) o;
+            return Objects.equals(username, other.username) && Arrays.equals(passwordDigest, other.passwordDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(username) + Arrays.hashCode(passwordDigest);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.onlinestore.session;
+
+import com.example.onlinestore.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 紧凑二进制格式的会话编解码器
+ *
+ * 只保存 UserContext 使用方需要的字段，固定布局为：
+ * <pre>
+ * id (long) | tokenExpireTime 秒数 (long) | username (modified UTF-8)
+ *   | permissions (long) | permissionRevision (long) | 角色数 (short) | role (modified UTF-8)...
+ * </pre>
+ * 空值以 Long.MIN_VALUE 表示。Redis 通过 StringRedisTemplate 访问，因此字节以 Base64 编码，
+ * 并以 {@value #PREFIX} 作为格式和版本标识。仍可读取不含角色和权限的 {@value #LEGACY_PREFIX} 会话，
+ * 读出的权限版本为 0，首次权限检查时重新解析。
+ *
+ * 不写入权限时仍写入 {@value #LEGACY_PREFIX} 会话，供滚动发布期间只能读取该格式的旧版本节点使用。
+ */
+public class BinarySessionCodec implements SessionCodec {
+
+    static final String PREFIX = "b2:";
+
+    static final String LEGACY_PREFIX = "b1:";
+
+    private static final long NULL_VALUE = Long.MIN_VALUE;
+
+    private final boolean writePermissions;
+
+    public BinarySessionCodec() {
+        this(true);
+    }
+
+    /**
+     * @param writePermissions 是否写入角色和权限位图（{@value #PREFIX}），否则写入 {@value #LEGACY_PREFIX}
+     */
+    public BinarySessionCodec(boolean writePermissions) {
+        this.writePermissions = writePermissions;
+    }
+
+    @Override
+    public String encode(User user) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(user.getId() == null ? NULL_VALUE : user.getId());
+            out.writeLong(user.getTokenExpireTime() == null
+                ? NULL_VALUE : user.getTokenExpireTime().toEpochSecond(ZoneOffset.UTC));
+            out.writeUTF(user.getUsername());
+            if (writePermissions) {
+                out.writeLong(user.getPermissions());
+                out.writeLong(user.getPermissionRevision());
+                Set<String> roles = user.getRoles() == null ? Collections.emptySet() : user.getRoles();
+                out.writeShort(roles.size());
+                for (String role : roles) {
+                    out.writeUTF(role);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("会话序列化失败", e);
+        }
+        return (writePermissions ? PREFIX : LEGACY_PREFIX)
+            + Base64.getEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    @Override
+    public User decode(String payload) {
+        // 两个版本的前缀长度相同
+        byte[] bytes = Base64.getDecoder().decode(payload.substring(PREFIX.length()));
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            User user = new User();
+            long id = in.readLong();
+            user.setId(id == NULL_VALUE ? null : id);
+            long expireTime = in.readLong();
+            user.setTokenExpireTime(expireTime == NULL_VALUE
+                ? null : LocalDateTime.ofEpochSecond(expireTime, 0, ZoneOffset.UTC));
+            user.setUsername(in.readUTF());
+            if (payload.startsWith(PREFIX)) {
+                user.setPermissions(in.readLong());
+                user.setPermissionRevision(in.readLong());
+                int count = in.readShort();
+                Set<String> roles = new LinkedHashSet<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    roles.add(in.readUTF());
+                }
+                user.setRoles(Collections.unmodifiableSet(roles));
+            }
+            return user;
+        } catch (IOException e) {
+            throw new IllegalStateException("会话反序列化失败", e);
+        }
+    }
+
+    @Override
+    public boolean supports(String payload) {
+        return payload.startsWith(PREFIX) || payload.startsWith(LEGACY_PREFIX);
+    }
+}
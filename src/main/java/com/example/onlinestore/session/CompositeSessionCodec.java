@@ -0,0 +1,42 @@
+package com.example.onlinestore.session;
+
+import com.example.onlinestore.model.User;
+
+import java.util.List;
+
+/**
+ * 组合会话编解码器
+ *
+ * 使用配置的编解码器写入，读取时按内容格式选择能够解码的编解码器，
+ * 保证切换格式期间新旧两种会话都能被读取。
+ */
+public class CompositeSessionCodec implements SessionCodec {
+
+    private final SessionCodec writer;
+    private final List<SessionCodec> readers;
+
+    public CompositeSessionCodec(SessionCodec writer, List<SessionCodec> readers) {
+        this.writer = writer;
+        this.readers = readers;
+    }
+
+    @Override
+    public String encode(User user) {
+        return writer.encode(user);
+    }
+
+    @Override
+    public User decode(String payload) {
+        for (SessionCodec reader : readers) {
+            if (reader.supports(payload)) {
+                return reader.decode(payload);
+            }
+        }
+        throw new IllegalStateException("无法识别的会话格式");
+    }
+
+    @Override
+    public boolean supports(String payload) {
+        return readers.stream().anyMatch(reader -> reader.supports(payload));
+    }
+}
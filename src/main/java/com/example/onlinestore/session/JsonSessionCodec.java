@@ -0,0 +1,67 @@
+package com.example.onlinestore.session;
+
+import com.example.onlinestore.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * JSON 格式的会话编解码器
+ *
+ * 与早期版本写入的完整 User JSON 兼容，用于读取切换格式前已存在的会话。
+ *
+ * 早期版本读取时遇到未知字段会失败，因此不写入权限时省略角色和权限字段；
+ * 读取时忽略未知字段，以后新增字段时旧版本节点仍能读取新节点写入的会话。
+ */
+public class JsonSessionCodec implements SessionCodec {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter writer;
+
+    public JsonSessionCodec() {
+        this(true);
+    }
+
+    /**
+     * @param writePermissions 是否写入角色和权限字段
+     */
+    public JsonSessionCodec(boolean writePermissions) {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.writer = writePermissions
+            ? objectMapper.writer()
+            : objectMapper.copy().addMixIn(User.class, WithoutPermissions.class).writer();
+    }
+
+    @JsonIgnoreProperties({"roles", "permissions", "permissionRevision"})
+    private abstract static class WithoutPermissions {
+    }
+
+    @Override
+    public String encode(User user) {
+        try {
+            return writer.writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("会话序列化失败", e);
+        }
+    }
+
+    @Override
+    public User decode(String payload) {
+        try {
+            return objectMapper.readValue(payload, User.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("会话反序列化失败", e);
+        }
+    }
+
+    @Override
+    public boolean supports(String payload) {
+        return payload.startsWith("{");
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.onlinestore.session;
+
+import com.example.onlinestore.model.User;
+
+/**
+ * Redis 中 token:&lt;uuid&gt; 会话内容的编解码器
+ */
+public interface SessionCodec {
+
+    /**
+     * 将用户会话编码为写入 Redis 的字符串
+     */
+    String encode(User user);
+
+    /**
+     * 将 Redis 中的字符串解码为用户会话
+     */
+    User decode(String payload);
+
+    /**
+     * 判断是否能解码指定格式的内容
+     */
+    boolean supports(String payload);
+}
@@ -0,0 +1,204 @@
+package com.example.onlinestore.session;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话异步写入器
+ *
+ * 登录时不再在事务内同步写 Redis，而是在事务提交后放入有界队列，由后台线程批量取出，
+ * 通过 Redis pipeline 一次发送多条 SET EX，减少登录高峰时的网络往返：
+ * <ul>
+ *   <li>有事务时在 afterCommit 中入队，事务回滚则不写入；没有事务时直接入队</li>
+ *   <li>入队前可以执行提交回调，例如在本节点缓存新 token，事务回滚时同样不执行</li>
+ *   <li>队列已满时退化为调用线程同步写入，不丢弃会话</li>
+ *   <li>写入完成后执行回调，例如通知各节点清除缓存的无效 token</li>
+ * </ul>
+ *
+ * 配置示例：
+ * <pre>
+ * session:
+ *   write-behind:
+ *     queue-capacity: 10000
+ *     batch-size: 100
+ * </pre>
+ */
+@Component
+public class SessionWriter {
+    private static final Logger logger = LoggerFactory.getLogger(SessionWriter.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${session.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${session.write-behind.batch-size:100}")
+    private int batchSize;
+
+    private BlockingQueue<Write> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::drainLoop, "session-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        // 停止前写入队列中剩余的会话
+        List<Write> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * 写入会话，有事务时在事务提交后写入
+     *
+     * @param key Redis key
+     * @param value 会话内容
+     * @param ttl 过期时间
+     * @param onWritten 写入成功后执行的回调
+     */
+    public void write(String key, String value, Duration ttl, Runnable onWritten) {
+        write(key, value, ttl, null, onWritten);
+    }
+
+    /**
+     * 写入会话，有事务时在事务提交后写入
+     *
+     * @param key Redis key
+     * @param value 会话内容
+     * @param ttl 过期时间
+     * @param onCommitted 事务提交后、入队前在调用线程执行的回调，事务回滚时不执行；可以为 null
+     * @param onWritten 写入成功后执行的回调
+     */
+    public void write(String key, String value, Duration ttl, Runnable onCommitted, Runnable onWritten) {
+        Write write = new Write(key, value, ttl, onWritten);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed(onCommitted);
+                    enqueue(write);
+                }
+            });
+        } else {
+            committed(onCommitted);
+            enqueue(write);
+        }
+    }
+
+    private void committed(Runnable onCommitted) {
+        if (onCommitted == null) {
+            return;
+        }
+        try {
+            onCommitted.run();
+        } catch (Exception e) {
+            logger.warn("会话提交回调执行失败", e);
+        }
+    }
+
+    private void enqueue(Write write) {
+        if (!queue.offer(write)) {
+            logger.warn("会话写入队列已满，改为同步写入");
+            flush(List.of(write));
+        }
+    }
+
+    private void drainLoop() {
+        List<Write> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Write first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 通过 pipeline 批量写入
+     */
+    void flush(List<Write> batch) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Write write : batch) {
+                    connection.stringCommands().set(
+                        write.key.getBytes(StandardCharsets.UTF_8),
+                        write.value.getBytes(StandardCharsets.UTF_8),
+                        Expiration.from(write.ttl),
+                        RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("批量写入会话失败，数量: {}", batch.size(), e);
+            return;
+        }
+        for (Write write : batch) {
+            try {
+                write.onWritten.run();
+            } catch (Exception e) {
+                logger.warn("会话写入回调执行失败", e);
+            }
+        }
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    static final class Write {
+        private final String key;
+        private final String value;
+        private final Duration ttl;
+        private final Runnable onWritten;
+
+        Write(String key, String value, Duration ttl, Runnable onWritten) {
+            this.key = key;
+            this.value = value;
+            this.ttl = ttl;
+            this.onWritten = onWritten;
+        }
+    }
+}
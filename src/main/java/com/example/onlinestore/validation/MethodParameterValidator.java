@@ -0,0 +1,164 @@
+package com.example.onlinestore.validation;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.context.MessageSource;
+import org.springframework.validation.annotation.Validated;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 方法参数验证
+ *
+ * 每个方法第一次验证时生成验证计划并缓存：只验证声明了约束或标注了 @Valid 的参数，
+ * 参数上的 @Validated 指定验证分组；错误消息按语言缓存，不重复查询 MessageSource。
+ * 由 ValidationAspect 和拦截器模式下的参数解析器共用。
+ */
+public class MethodParameterValidator {
+
+    // 缓存的消息上限，避免异常的消息模板无限增长
+    private static final int MAX_CACHED_MESSAGES = 1000;
+
+    private final Validator validator;
+    private final MessageSource messageSource;
+
+    private final Map<Method, ValidationPlan> plans = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, Boolean> constrainedTypes = new ConcurrentHashMap<>();
+
+    private final Map<Locale, Map<String, String>> messages = new ConcurrentHashMap<>();
+
+    public MethodParameterValidator(Validator validator, MessageSource messageSource) {
+        this.validator = validator;
+        this.messageSource = messageSource;
+    }
+
+    /**
+     * 验证方法的全部参数
+     *
+     * @param method 被调用的方法，为 null 时验证全部参数
+     * @return 验证失败时返回本地化的错误消息，通过时返回 null
+     */
+    public String validate(Method method, Object[] args, Locale locale) {
+        ValidationPlan plan = method == null ? ValidationPlan.all(args.length) : planFor(method);
+        for (int i = 0; i < args.length; i++) {
+            String error = validate(plan, i, args[i], locale);
+            if (error != null) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 验证方法的单个参数
+     *
+     * @return 验证失败时返回本地化的错误消息，通过时返回 null
+     */
+    public String validate(Method method, int index, Object arg, Locale locale) {
+        return validate(planFor(method), index, arg, locale);
+    }
+
+    private String validate(ValidationPlan plan, int index, Object arg, Locale locale) {
+        if (arg == null || !requiresValidation(plan, index, arg)) {
+            return null;
+        }
+        Class<?>[] groups = plan.groups(index);
+        Set<ConstraintViolation<Object>> violations = groups == null
+            ? validator.validate(arg) : validator.validate(arg, groups);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> resolveMessage(violation.getMessage(), locale))
+            .collect(Collectors.joining(", "));
+    }
+
+    private boolean requiresValidation(ValidationPlan plan, int index, Object arg) {
+        if (plan.isConstrained(index)) {
+            return true;
+        }
+        // 实际参数是声明类型的子类时，子类可能声明了额外的约束
+        Class<?> type = arg.getClass();
+        return type != plan.declaredType(index) && isConstrained(type);
+    }
+
+    private boolean isConstrained(Class<?> type) {
+        return constrainedTypes.computeIfAbsent(type,
+            key -> validator.getConstraintsForClass(key).isBeanConstrained());
+    }
+
+    private ValidationPlan planFor(Method method) {
+        return plans.computeIfAbsent(method, this::buildPlan);
+    }
+
+    private ValidationPlan buildPlan(Method method) {
+        Parameter[] parameters = method.getParameters();
+        boolean[] constrained = new boolean[parameters.length];
+        Class<?>[][] groups = new Class<?>[parameters.length][];
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            Class<?> type = parameter.getType();
+            constrained[i] = parameter.isAnnotationPresent(Valid.class)
+                || parameter.isAnnotationPresent(Validated.class)
+                || (!type.isPrimitive() && isConstrained(type));
+            Validated validated = parameter.getAnnotation(Validated.class);
+            groups[i] = validated != null && validated.value().length > 0 ? validated.value() : null;
+        }
+        return new ValidationPlan(method.getParameterTypes(), constrained, groups);
+    }
+
+    private String resolveMessage(String template, Locale locale) {
+        Map<String, String> resolved = messages.computeIfAbsent(locale, key -> new ConcurrentHashMap<>());
+        String message = resolved.get(template);
+        if (message == null) {
+            message = messageSource.getMessage(template, null, locale);
+            if (resolved.size() < MAX_CACHED_MESSAGES) {
+                resolved.put(template, message);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * 方法参数的验证计划
+     */
+    static final class ValidationPlan {
+        private final Class<?>[] declaredTypes;
+        private final boolean[] constrained;
+        // 为 null 时使用默认分组
+        private final Class<?>[][] groups;
+
+        ValidationPlan(Class<?>[] declaredTypes, boolean[] constrained, Class<?>[][] groups) {
+            this.declaredTypes = declaredTypes;
+            this.constrained = constrained;
+            this.groups = groups;
+        }
+
+        static ValidationPlan all(int argCount) {
+            boolean[] constrained = new boolean[argCount];
+            Arrays.fill(constrained, true);
+            return new ValidationPlan(new Class<?>[argCount], constrained, new Class<?>[argCount][]);
+        }
+
+        boolean isConstrained(int index) {
+            return index >= constrained.length || constrained[index];
+        }
+
+        Class<?> declaredType(int index) {
+            return declaredTypes[index];
+        }
+
+        Class<?>[] groups(int index) {
+            return index < groups.length ? groups[index] : null;
+        }
+    }
+}
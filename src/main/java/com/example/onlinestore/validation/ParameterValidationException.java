@@ -0,0 +1,11 @@
+package com.example.onlinestore.validation;
+
+/**
+ * 拦截器模式下参数验证失败，消息为本地化后的错误信息
+ */
+public class ParameterValidationException extends RuntimeException {
+
+    public ParameterValidationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.onlinestore.validation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * 拦截器模式下参数验证失败时返回 400，响应内容与 ValidationAspect 相同
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "web.guard.mode", havingValue = "interceptor")
+public class ParameterValidationExceptionHandler {
+
+    @ExceptionHandler(ParameterValidationException.class)
+    public ResponseEntity<String> handleValidationFailure(ParameterValidationException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
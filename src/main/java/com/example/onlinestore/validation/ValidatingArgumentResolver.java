@@ -0,0 +1,51 @@
+package com.example.onlinestore.validation;
+
+import com.example.onlinestore.annotation.ValidateParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 解析参数后立即验证的参数解析器
+ *
+ * 包装 Spring MVC 原有的参数解析器，只处理标注了 @ValidateParams 的处理方法，
+ * 验证失败时抛出 ParameterValidationException，由 ParameterValidationExceptionHandler 返回 400。
+ */
+public class ValidatingArgumentResolver implements HandlerMethodArgumentResolver {
+    private static final Logger logger = LoggerFactory.getLogger(ValidatingArgumentResolver.class);
+
+    private final HandlerMethodArgumentResolver delegate;
+    private final MethodParameterValidator parameterValidator;
+
+    public ValidatingArgumentResolver(HandlerMethodArgumentResolver delegate,
+                                      MethodParameterValidator parameterValidator) {
+        this.delegate = delegate;
+        this.parameterValidator = parameterValidator;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return delegate.supportsParameter(parameter);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        Object arg = delegate.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
+        // 处理方法的 MethodParameter 在启动时创建并缓存注解，这里的判断不会重复反射
+        if (parameter.getMethod() != null && parameter.hasMethodAnnotation(ValidateParams.class)) {
+            String errorMessages = parameterValidator.validate(
+                parameter.getMethod(), parameter.getParameterIndex(), arg, LocaleContextHolder.getLocale());
+            if (errorMessages != null) {
+                logger.warn("参数验证失败: {}", errorMessages);
+                throw new ParameterValidationException(errorMessages);
+            }
+        }
+        return arg;
+    }
+}
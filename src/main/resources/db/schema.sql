@@ -4,5 +4,23 @@ CREATE TABLE IF NOT EXISTS users (
     token VARCHAR(100),
     token_expire_time DATETIME,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
-    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
-); 
\ No newline at end of file
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_users_created_at_id (created_at, id)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    -- 名称与分类区分重音、不区分大小写，与商品缓存的匹配规则一致；已有的表需要执行
+    -- ALTER TABLE products MODIFY name VARCHAR(100) COLLATE utf8mb4_0900_as_ci NOT NULL,
+    --     MODIFY category VARCHAR(50) COLLATE utf8mb4_0900_as_ci NOT NULL;
+    name VARCHAR(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_as_ci NOT NULL,
+    category VARCHAR(50) CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_as_ci NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_products_created_at_id (created_at, id),
+    INDEX idx_products_category_created_at_id (category, created_at, id),
+    INDEX idx_products_price_created_at_id (price, created_at, id),
+    -- 名称搜索使用 ngram 全文索引，需要 ngram_token_size=2 且关闭 innodb_ft_enable_stopword
+    FULLTEXT INDEX ft_products_name (name) WITH PARSER ngram
+);
@@ -1,5 +1,7 @@
 package com.example.onlinestore.aspect;
 
+import com.example.onlinestore.annotation.RequireAdmin;
+import com.example.onlinestore.cache.RolePermissionCache;
 import com.example.onlinestore.context.UserContext;
 import com.example.onlinestore.model.User;
 import org.junit.jupiter.api.AfterEach;
@@ -27,6 +29,9 @@ public class AdminAuthAspectTest {
     @Mock
     private MessageSource messageSource;
 
+    @Mock
+    private RolePermissionCache rolePermissionCache;
+
     @InjectMocks
     private AdminAuthAspect adminAuthAspect;
 
@@ -34,6 +39,23 @@ public class AdminAuthAspectTest {
     private static final String ERROR_ACCESS_DENIED = "error.access.denied";
     private static final String ACCESS_DENIED_MESSAGE = "访问被拒绝";
 
+    /**
+     * 默认的 @RequireAdmin，即要求管理员权限
+     */
+    private static final RequireAdmin REQUIRE_ADMIN = requireAdmin();
+
+    @RequireAdmin
+    private static void adminOnly() {
+    }
+
+    private static RequireAdmin requireAdmin() {
+        try {
+            return AdminAuthAspectTest.class.getDeclaredMethod("adminOnly").getAnnotation(RequireAdmin.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @BeforeEach
     void setUp() {
         adminAuthAspect.adminUsername = ADMIN_USERNAME;
@@ -58,7 +80,7 @@ public class AdminAuthAspectTest {
             UserContext.setCurrentUser(adminUser);
 
             // 执行测试
-            assertDoesNotThrow(() -> adminAuthAspect.checkAdminAuth());
+            assertDoesNotThrow(() -> adminAuthAspect.checkAdminAuth(REQUIRE_ADMIN));
         }
 
         @Test
@@ -72,7 +94,7 @@ public class AdminAuthAspectTest {
             // 执行测试
             IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
-                () -> adminAuthAspect.checkAdminAuth()
+                () -> adminAuthAspect.checkAdminAuth(REQUIRE_ADMIN)
             );
 
             // 验证结果
@@ -92,7 +114,7 @@ public class AdminAuthAspectTest {
             // 执行测试
             IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
-                () -> adminAuthAspect.checkAdminAuth()
+                () -> adminAuthAspect.checkAdminAuth(REQUIRE_ADMIN)
             );
 
             // 验证结果
@@ -1,9 +1,12 @@
 package com.example.onlinestore.aspect;
 
 import com.example.onlinestore.dto.UserPageRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import jakarta.validation.ConstraintViolation;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,11 +18,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -164,4 +170,66 @@ public class ValidationAspectTest {
             assertEquals("Test exception", exception.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    @Nested
+    @DisplayName("验证计划测试")
+    class ValidationPlanTests {
+
+        private Validator realValidator;
+        private ValidationAspect aspect;
+
+        @BeforeEach
+        void setUp() {
+            realValidator = spy(Validation.buildDefaultValidatorFactory().getValidator());
+            aspect = new ValidationAspect();
+            ReflectionTestUtils.setField(aspect, "validator", realValidator);
+            ReflectionTestUtils.setField(aspect, "messageSource", messageSource);
+        }
+
+        private void stubSignature(Object... args) throws NoSuchMethodException {
+            MethodSignature signature = mock(MethodSignature.class);
+            when(signature.getMethod()).thenReturn(SampleController.class.getMethod(
+                "list", UserPageRequest.class, String.class, int.class));
+            when(joinPoint.getSignature()).thenReturn(signature);
+            when(joinPoint.getArgs()).thenReturn(args);
+        }
+
+        @Test
+        @DisplayName("只验证有约束的参数，计划只生成一次")
+        void whenMethodInvoked_thenValidateConstrainedArgumentsOnly() throws Throwable {
+            UserPageRequest valid = new UserPageRequest();
+            stubSignature(valid, "name", 1);
+            when(joinPoint.proceed()).thenReturn(ResponseEntity.ok().build());
+
+            aspect.validateParameters(joinPoint);
+            aspect.validateParameters(joinPoint);
+
+            verify(realValidator, times(2)).validate(valid);
+            verify(realValidator, never()).validate("name");
+            verify(realValidator, times(1)).getConstraintsForClass(String.class);
+            verify(joinPoint, times(2)).proceed();
+        }
+
+        @Test
+        @DisplayName("错误消息按语言缓存")
+        void whenSameViolationRepeated_thenResolveMessageOnce() throws Throwable {
+            stubSignature(request, "name", 1);
+            when(messageSource.getMessage(anyString(), any(), eq(LocaleContextHolder.getLocale())))
+                .thenAnswer(invocation -> "msg:" + invocation.getArgument(0));
+
+            ResponseEntity<?> first = (ResponseEntity<?>) aspect.validateParameters(joinPoint);
+            ResponseEntity<?> second = (ResponseEntity<?>) aspect.validateParameters(joinPoint);
+
+            assertEquals(400, first.getStatusCode().value());
+            assertTrue(((String) second.getBody()).contains("msg:error.page.number.min"));
+            verify(messageSource, times(1)).getMessage(eq("error.page.number.min"), any(), any(Locale.class));
+            verify(joinPoint, never()).proceed();
+        }
+    }
+
+    public static class SampleController {
+        public ResponseEntity<?> list(@Valid UserPageRequest request, String name, int count) {
+            return ResponseEntity.ok().build();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.onlinestore.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("已验证凭证缓存测试")
+public class CredentialCacheTest {
+
+    private CredentialCache credentialCache;
+
+    @BeforeEach
+    void setUp() {
+        credentialCache = new CredentialCache();
+        ReflectionTestUtils.setField(credentialCache, "enabled", true);
+        ReflectionTestUtils.setField(credentialCache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(credentialCache, "maxSize", 10);
+        ReflectionTestUtils.setField(credentialCache, "iterations", 1000);
+    }
+
+    @Test
+    @DisplayName("只有相同的用户名与密码才命中")
+    void whenMarkedVerified_thenOnlySamePasswordMatches() {
+        credentialCache.markVerified("user", "password");
+
+        assertTrue(credentialCache.isVerified("user", "password"));
+        assertFalse(credentialCache.isVerified("user", "wrong"));
+        assertFalse(credentialCache.isVerified("other", "password"));
+    }
+
+    @Test
+    @DisplayName("条目过期后不再命中")
+    void whenExpired_thenMiss() {
+        ReflectionTestUtils.setField(credentialCache, "ttl", Duration.ZERO);
+        credentialCache.markVerified("user", "password");
+
+        assertFalse(credentialCache.isVerified("user", "password"));
+    }
+
+    @Test
+    @DisplayName("未开启时不缓存")
+    void whenDisabled_thenNeverVerified() {
+        ReflectionTestUtils.setField(credentialCache, "enabled", false);
+        credentialCache.markVerified("user", "password");
+
+        assertFalse(credentialCache.isVerified("user", "password"));
+    }
+
+    @Test
+    @DisplayName("失效后不再命中")
+    void whenInvalidated_thenMiss() {
+        credentialCache.markVerified("user", "password");
+        credentialCache.invalidate("user");
+
+        assertFalse(credentialCache.isVerified("user", "password"));
+    }
+
+    @Test
+    @DisplayName("超出容量时淘汰条目")
+    void whenFull_thenStayBounded() {
+        for (int i = 0; i < 30; i++) {
+            credentialCache.markVerified("user-" + i, "password");
+        }
+
+        int cached = 0;
+        for (int i = 0; i < 30; i++) {
+            if (credentialCache.isVerified("user-" + i, "password")) {
+                cached++;
+            }
+        }
+        assertTrue(cached <= 10);
+        assertTrue(credentialCache.isVerified("user-29", "password"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.example.onlinestore.model.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("商品缓存测试")
+public class ProductCacheTest {
+
+    private static final int CAPACITY = 3;
+
+    private ProductCache productCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache();
+        ReflectionTestUtils.setField(productCache, "capacity", CAPACITY);
+        ReflectionTestUtils.setField(productCache, "meterRegistry", meterRegistry);
+        productCache.registerMetrics();
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("淘汰策略测试")
+    class EvictionTests {
+        @Test
+        @DisplayName("超出容量时淘汰最早加入的商品")
+        void whenCapacityExceeded_thenEvictEldest() {
+            for (long id = 1; id <= 5; id++) {
+                productCache.put(product(id));
+            }
+
+            assertEquals(CAPACITY, productCache.size());
+            assertEquals(Arrays.asList(5L, 4L, 3L), ids(productCache.catalog().all()));
+            assertEquals(2.0, meterRegistry.get("product.cache.evictions").functionCounter().count());
+        }
+
+        @Test
+        @DisplayName("重复加入不改变淘汰顺序")
+        void whenProductReplaced_thenKeepInsertionOrder() {
+            productCache.putAll(Arrays.asList(product(1), product(2), product(3)));
+            Product updated = product(1);
+            updated.setName("updated");
+            productCache.put(updated);
+            productCache.put(product(4));
+
+            assertEquals(Arrays.asList(4L, 3L, 2L), ids(productCache.catalog().all()));
+            assertNull(productCache.get(1L));
+        }
+
+        @Test
+        @DisplayName("预热期间写入的商品保留新版本并最后淘汰")
+        void whenLoadedAfterConcurrentPut_thenKeepNewerEntries() {
+            Product created = product(4);
+            Product updated = product(3);
+            updated.setName("updated");
+            productCache.put(created);
+            productCache.put(updated);
+
+            productCache.load(Arrays.asList(product(1), product(2), product(3)));
+
+            assertTrue(productCache.isLoaded());
+            assertEquals(Arrays.asList(4L, 3L, 2L), ids(productCache.catalog().all()));
+            assertEquals("updated", productCache.get(3L).getName());
+        }
+    }
+
+    @Nested
+    @DisplayName("统计与并发测试")
+    class MetricsAndConcurrencyTests {
+        @Test
+        @DisplayName("记录命中与未命中次数")
+        void whenGet_thenRecordHitsAndMisses() {
+            productCache.put(product(1));
+
+            assertNotNull(productCache.get(1L));
+            assertNull(productCache.get(2L));
+
+            assertEquals(1.0, meterRegistry.get("product.cache.hits").functionCounter().count());
+            assertEquals(1.0, meterRegistry.get("product.cache.misses").functionCounter().count());
+            assertEquals(1.0, meterRegistry.get("product.cache.size").gauge().value());
+        }
+
+        @Test
+        @DisplayName("并发写入后容量不超出限制")
+        void whenConcurrentPuts_thenStayBounded() throws Exception {
+            ReflectionTestUtils.setField(productCache, "capacity", 100);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Runnable> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final long base = t * 1000L;
+                tasks.add(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (long id = base; id < base + 500; id++) {
+                        productCache.put(product(id));
+                    }
+                });
+            }
+            tasks.forEach(executor::submit);
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertEquals(100, productCache.size());
+            assertEquals(100, productCache.catalog().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("名称索引测试")
+    class NameIndexTests {
+        @Test
+        @DisplayName("按名称包含关系查询，不区分大小写")
+        void whenSearchByName_thenMatchSubstringIgnoringCase() {
+            ReflectionTestUtils.setField(productCache, "capacity", 10);
+            Product phone = product(1);
+            phone.setName("iPhone 15");
+            Product case1 = product(2);
+            case1.setName("Phone Case");
+            Product laptop = product(3);
+            laptop.setName("Laptop");
+            productCache.putAll(Arrays.asList(phone, case1, laptop));
+
+            assertEquals(Arrays.asList(2L, 1L), ids(productCache.searchByName("PHONE")));
+            assertEquals(Arrays.asList(3L, 2L, 1L), ids(productCache.searchByName("p")));
+            assertEquals(Arrays.asList(1L), ids(productCache.searchByName("ne 1")));
+            assertTrue(productCache.searchByName("tablet").isEmpty());
+        }
+
+        @Test
+        @DisplayName("淘汰或改名后索引同步更新")
+        void whenEvictedOrRenamed_thenIndexUpdated() {
+            productCache.putAll(Arrays.asList(product(1), product(2), product(3)));
+            Product renamed = product(2);
+            renamed.setName("renamed");
+            productCache.put(renamed);
+            productCache.put(product(4));
+
+            assertTrue(productCache.searchByName("product-1").isEmpty());
+            assertTrue(productCache.searchByName("product-2").isEmpty());
+            assertEquals(Arrays.asList(2L), ids(productCache.searchByName("renamed")));
+            assertEquals(Arrays.asList(4L, 3L), ids(productCache.searchByName("product-")));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.onlinestore.model.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("商品缓存预热测试")
+public class ProductCacheWarmupTest {
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Spy
+    private ProductCache productCache = new ProductCache();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ProductCacheWarmup productCacheWarmup;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productCache, "capacity", 3);
+        productCacheWarmup.registerMetrics();
+    }
+
+    /**
+     * 模拟 scanNewest 按 created_at DESC 逐行回调
+     */
+    private void stubNewest(List<Product> newestFirst) {
+        doAnswer(invocation -> {
+            ResultHandler<Product> handler = invocation.getArgument(1);
+            DefaultResultContext<Product> context = new DefaultResultContext<>();
+            for (Product product : newestFirst) {
+                context.nextResultObject(product);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(productMapper).scanNewest(eq(3), any());
+    }
+
+    @Test
+    @DisplayName("预热前 readiness 为 OUT_OF_SERVICE，预热后为 UP")
+    void whenWarmedUp_thenReady() {
+        stubNewest(Arrays.asList(product(3), product(2), product(1)));
+        assertEquals(Status.OUT_OF_SERVICE, productCacheWarmup.health().getStatus());
+
+        productCacheWarmup.warmUp();
+
+        assertEquals(Status.UP, productCacheWarmup.health().getStatus());
+        assertEquals(Arrays.asList(3L, 2L, 1L),
+            productCache.catalog().all().stream().map(Product::getId).collect(Collectors.toList()));
+        assertEquals(3.0, meterRegistry.get("product.cache.warmup.rows").gauge().value());
+        assertEquals(1.0, meterRegistry.get("product.cache.warmup.ready").gauge().value());
+    }
+
+    @Test
+    @DisplayName("按创建时间从旧到新加入，后续写入先淘汰最旧的商品")
+    void whenWarmedUp_thenEvictOldestFirst() {
+        stubNewest(Arrays.asList(product(3), product(2), product(1)));
+        productCacheWarmup.warmUp();
+
+        productCache.put(product(4));
+
+        assertNull(productCache.get(1L));
+        assertNotNull(productCache.get(2L));
+    }
+
+    @Test
+    @DisplayName("数据库不可用时按间隔重试直到预热完成")
+    void whenDatabaseUnavailable_thenRetryUntilLoaded() {
+        ReflectionTestUtils.setField(productCacheWarmup, "retryDelay", Duration.ofMillis(1));
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+            .doAnswer(invocation -> null)
+            .when(productMapper).scanNewest(anyInt(), any());
+
+        productCacheWarmup.start();
+
+        verify(productMapper, timeout(1000).times(2)).scanNewest(anyInt(), any());
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            while (!productCache.isLoaded()) {
+                Thread.onSpinWait();
+            }
+        });
+        assertEquals(Status.UP, productCacheWarmup.health().getStatus());
+    }
+
+    @Test
+    @DisplayName("预热完成前请求的重新同步在预热完成后执行")
+    void whenResyncRequestedDuringWarmup_thenResyncAfterLoaded() {
+        stubNewest(Arrays.asList(product(3), product(2), product(1)));
+
+        productCacheWarmup.resync();
+        verifyNoInteractions(productMapper);
+
+        productCacheWarmup.start();
+
+        verify(productMapper, timeout(1000).times(2)).scanNewest(eq(3), any());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.onlinestore.model.ProductFixtures.BASE_TIME;
+import static com.example.onlinestore.model.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("商品目录快照测试")
+public class ProductCatalogTest {
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("按创建时间倒序、id倒序排序")
+    void whenBuilt_thenSortedByCreatedAtDescAndIdDesc() {
+        ProductCatalog catalog = ProductCatalog.of(Arrays.asList(
+            product(1, BASE_TIME),
+            product(2, BASE_TIME.plusMinutes(1)),
+            product(3, BASE_TIME),
+            product(4, BASE_TIME.plusMinutes(2))));
+
+        assertEquals(Arrays.asList(4L, 2L, 3L, 1L), ids(catalog.all()));
+        assertEquals(4, catalog.size());
+    }
+
+    @Test
+    @DisplayName("偏移量分页与游标分页结果一致")
+    void whenPaging_thenOffsetAndKeysetMatch() {
+        ProductCatalog catalog = ProductCatalog.empty();
+        for (long id = 1; id <= 10; id++) {
+            catalog = catalog.with(null, product(id, BASE_TIME.plusMinutes(id / 2)));
+        }
+
+        List<Product> first = catalog.page(0, 4);
+        List<Product> second = catalog.page(4, 4);
+        Product last = first.get(first.size() - 1);
+
+        assertEquals(ids(second), ids(catalog.after(last.getCreatedAt(), last.getId(), 4)));
+        assertEquals(Arrays.asList(10L, 9L, 8L, 7L), ids(first));
+        assertTrue(catalog.page(20, 4).isEmpty());
+    }
+
+    @Test
+    @DisplayName("替换与移除商品后生成新快照")
+    void whenReplacedOrRemoved_thenOriginalSnapshotUnchanged() {
+        Product original = product(1, BASE_TIME);
+        ProductCatalog catalog = ProductCatalog.of(Arrays.asList(original, product(2, BASE_TIME.plusMinutes(1))));
+
+        Product renamed = product(1, BASE_TIME);
+        renamed.setName("renamed");
+        ProductCatalog replaced = catalog.with(original, renamed);
+        ProductCatalog removed = replaced.without(renamed);
+
+        assertEquals(2, replaced.size());
+        assertEquals("renamed", replaced.page(1, 1).get(0).getName());
+        assertEquals("product-1", catalog.page(1, 1).get(0).getName());
+        assertEquals(Arrays.asList(2L), ids(removed.all()));
+    }
+
+    @Test
+    @DisplayName("分类索引随写入、替换和删除保持有序")
+    void whenCategoryChanges_thenCategoryIndexFollows() {
+        ProductCatalog catalog = ProductCatalog.empty();
+        for (long id = 1; id <= 6; id++) {
+            Product product = product(id, BASE_TIME.plusMinutes(id));
+            product.setCategory(id % 2 == 0 ? "Phone" : "laptop");
+            catalog = catalog.with(null, product);
+        }
+        assertEquals(Arrays.asList(6L, 4L, 2L), ids(catalog.category("phone")));
+        assertEquals(3, catalog.category("LAPTOP").size());
+
+        Product moved = product(4, BASE_TIME.plusMinutes(4));
+        moved.setCategory("laptop");
+        catalog = catalog.with(catalog.all().get(2), moved);
+        catalog = catalog.without(catalog.all().get(0));
+
+        assertEquals(Arrays.asList(2L), ids(catalog.category("phone")));
+        assertEquals(Arrays.asList(5L, 4L, 3L, 1L), ids(catalog.category("laptop")));
+        assertTrue(catalog.category("tablet").isEmpty());
+        assertEquals(Arrays.asList(5L, 4L, 3L, 2L, 1L), ids(catalog.all()));
+    }
+
+    @Test
+    @DisplayName("价格索引按区间过滤，按价格排序时同价商品按创建时间排列")
+    void whenQueryingPriceRange_thenBinarySearchAndOrderTies() {
+        ProductCatalog catalog = ProductCatalog.empty();
+        String[] prices = {"5.00", "1.99", "3.50", "1.99", "9.99", "3.50", "0.01"};
+        for (int i = 0; i < prices.length; i++) {
+            Product product = product(i + 1, BASE_TIME.plusMinutes(i));
+            product.setPrice(new BigDecimal(prices[i]));
+            catalog = catalog.with(null, product);
+        }
+        BigDecimal min = new BigDecimal("1.985");
+        BigDecimal max = new BigDecimal("5");
+
+        assertEquals(Arrays.asList(6L, 4L, 3L, 2L, 1L), ids(catalog.priceRange(min, max, false, false)));
+        assertEquals(Arrays.asList(2L, 4L, 3L, 6L, 1L), ids(catalog.priceRange(min, max, true, false)));
+        assertEquals(Arrays.asList(1L, 6L, 3L, 4L, 2L), ids(catalog.priceRange(min, max, true, true)));
+        assertEquals(Arrays.asList(7L, 2L, 4L), ids(catalog.priceRange(null, new BigDecimal("2"), true, false)));
+        assertEquals(Arrays.asList(5L), ids(catalog.priceRange(new BigDecimal("5.01"), null, true, true)));
+        assertTrue(catalog.priceRange(new BigDecimal("100000000000"), null, true, false).isEmpty());
+        // 名称或分类查询结果上的价格过滤与全量快照一致
+        assertEquals(ids(catalog.priceRange(min, max, true, true)),
+            ids(ProductCatalog.priceRange(catalog.all(), min, max, true, true)));
+    }
+}
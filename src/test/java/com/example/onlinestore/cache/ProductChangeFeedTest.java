@@ -0,0 +1,150 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.onlinestore.model.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("商品变更广播测试")
+public class ProductChangeFeedTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ProductCacheWarmup productCacheWarmup;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Spy
+    private ProductCache productCache = new ProductCache();
+
+    @InjectMocks
+    private ProductChangeFeed productChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productCache, "capacity", 10);
+    }
+
+    private void receive(long version, Product... products) throws Exception {
+        String body = version + ":" + objectMapper.writeValueAsString(products);
+        productChangeFeed.onMessage(new DefaultMessage(
+            ProductChangeFeed.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    @DisplayName("事务提交后才广播变更")
+    void whenInTransaction_thenPublishAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productChangeFeed.publish(List.of(product(1, "phone")));
+            verifyNoInteractions(redisTemplate);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(Collections.singletonList(ProductChangeFeed.VERSION_KEY)),
+            eq(ProductChangeFeed.CHANNEL), contains("\"name\":\"phone\""));
+    }
+
+    @Test
+    @DisplayName("收到变更后加入本地缓存，忽略旧版本")
+    void whenChangeReceived_thenApplyNewerVersionOnly() throws Exception {
+        receive(1, product(1, "phone"));
+        receive(3, product(1, "phone v3"));
+        receive(2, product(1, "phone v2"));
+
+        assertEquals("phone v3", productCache.get(1L).getName());
+    }
+
+    @Test
+    @DisplayName("版本号不连续时重新同步")
+    void whenVersionGap_thenResync() throws Exception {
+        receive(1, product(1, "phone"));
+        receive(2, product(2, "laptop"));
+        verify(productCacheWarmup, never()).resync();
+
+        receive(5, product(3, "tablet"));
+
+        verify(productCacheWarmup).resync();
+        assertNotNull(productCache.get(3L));
+    }
+
+    @Test
+    @DisplayName("订阅建立后以当前版本号为起点并重新同步")
+    void whenSubscribed_thenSeedVersionAndResync() throws Exception {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(ProductChangeFeed.VERSION_KEY)).thenReturn("7");
+
+        productChangeFeed.subscribed();
+        verify(productCacheWarmup).resync();
+
+        receive(8, product(1, "phone"));
+        verify(productCacheWarmup).resync();
+
+        receive(10, product(2, "laptop"));
+        verify(productCacheWarmup, times(2)).resync();
+    }
+
+    @Test
+    @DisplayName("订阅后的第一条消息版本号不连续时也重新同步")
+    void whenFirstMessageAfterSubscribeSkipsVersion_thenResync() throws Exception {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(ProductChangeFeed.VERSION_KEY)).thenReturn(null);
+
+        productChangeFeed.subscribed();
+        receive(2, product(1, "phone"));
+
+        verify(productCacheWarmup, times(2)).resync();
+    }
+
+    @Test
+    @DisplayName("广播失败时在 Redis 恢复后跳过一个版本号通知各节点重新同步")
+    void whenPublishFails_thenNoticeGapAfterRecovery() {
+        ReflectionTestUtils.setField(productChangeFeed, "retryDelay", Duration.ZERO);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.execute(any(RedisScript.class), eq(Collections.singletonList(ProductChangeFeed.VERSION_KEY)),
+            eq(ProductChangeFeed.CHANNEL), anyString()))
+            .thenThrow(new IllegalStateException("redis down"))
+            .thenReturn(3L);
+
+        productChangeFeed.publish(List.of(product(1, "phone")));
+
+        verify(valueOperations, timeout(1000)).increment(ProductChangeFeed.VERSION_KEY);
+        verify(redisTemplate, timeout(1000)).execute(any(RedisScript.class),
+            eq(Collections.singletonList(ProductChangeFeed.VERSION_KEY)), eq(ProductChangeFeed.CHANNEL), eq("[]"));
+    }
+}
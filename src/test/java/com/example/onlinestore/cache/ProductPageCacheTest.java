@@ -0,0 +1,169 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.example.onlinestore.model.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("商品分页共享缓存测试")
+public class ProductPageCacheTest {
+
+    private static final String KEY = "product:page:newest:0:11:phone";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @InjectMocks
+    private ProductPageCache productPageCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productPageCache, "enabled", true);
+        ReflectionTestUtils.setField(productPageCache, "ttl", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(productPageCache, "beta", 1.0);
+        ReflectionTestUtils.setField(productPageCache, "lockTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(productPageCache, "lockWait", Duration.ofMillis(200));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private Supplier<ProductPageCache.Page> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return new ProductPageCache.Page(List.of(product(2), product(1)), 2);
+        };
+    }
+
+    private String entry(String version, long expiresAt) throws Exception {
+        ProductPageCache.Entry entry = new ProductPageCache.Entry();
+        entry.setVersion(version);
+        entry.setRecords(List.of(product(1)));
+        entry.setTotal(1);
+        entry.setExpiresAt(expiresAt);
+        return objectMapper.writeValueAsString(entry);
+    }
+
+    private void stubRead(String entry, String version) {
+        when(valueOperations.multiGet(Arrays.asList(KEY, ProductChangeFeed.VERSION_KEY)))
+            .thenReturn(Arrays.asList(entry, version));
+    }
+
+    @Test
+    @DisplayName("版本号一致且未过期时直接使用缓存")
+    void whenEntryFresh_thenServeFromRedis() throws Exception {
+        stubRead(entry("7", System.currentTimeMillis() + 60_000), "7");
+
+        ProductPageCache.Page page = productPageCache.get("newest", "phone", 0, 11, true, loader());
+
+        assertEquals(1, page.getRecords().size());
+        assertEquals(1, page.getTotal());
+        assertEquals(0, loads.get());
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("商品变更后版本号变化，取得锁后重新查询并写入")
+    void whenVersionChanged_thenRecomputeUnderLock() throws Exception {
+        stubRead(entry("7", System.currentTimeMillis() + 60_000), "8");
+        when(valueOperations.setIfAbsent(eq(KEY + ":lock"), anyString(), eq(Duration.ofSeconds(2)))).thenReturn(true);
+
+        ProductPageCache.Page page = productPageCache.get("newest", "phone", 0, 11, true, loader());
+
+        assertEquals(2, page.getRecords().size());
+        assertEquals(1, loads.get());
+        verify(valueOperations).set(eq(KEY), contains("\"version\":\"8\""), eq(Duration.ofSeconds(10)));
+        verify(redisTemplate).execute(any(), eq(List.of(KEY + ":lock")), anyString());
+    }
+
+    @Test
+    @DisplayName("其他节点持有锁时等待其写入结果，不访问数据库")
+    void whenLockHeldElsewhere_thenWaitForResult() throws Exception {
+        stubRead(null, "8");
+        when(valueOperations.setIfAbsent(eq(KEY + ":lock"), anyString(), any(Duration.class))).thenReturn(false);
+        String computed = entry("8", System.currentTimeMillis() + 60_000);
+        when(valueOperations.get(KEY)).thenReturn(null, computed);
+
+        ProductPageCache.Page page = productPageCache.get("newest", "phone", 0, 11, false, loader());
+
+        assertEquals(1, page.getRecords().size());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    @DisplayName("需要总数而缓存中没有时重新查询")
+    void whenTotalMissing_thenRecompute() throws Exception {
+        ProductPageCache.Entry entry = new ProductPageCache.Entry();
+        entry.setVersion("8");
+        entry.setRecords(List.of(product(1)));
+        entry.setTotal(-1);
+        entry.setExpiresAt(System.currentTimeMillis() + 60_000);
+        stubRead(objectMapper.writeValueAsString(entry), "8");
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertEquals(2, productPageCache.get("newest", "phone", 0, 11, true, loader()).getTotal());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时直接查询数据库")
+    void whenRedisUnavailable_thenLoadFromDatabase() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(2, productPageCache.get("newest", "phone", 0, 11, true, loader()).getRecords().size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("需要总数的调用不与不统计总数的加载合并")
+    void whenTotalRequiredDuringLoadWithoutTotal_thenLoadSeparately() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+        long[] total = new long[1];
+
+        ProductPageCache.Page page = productPageCache.get("newest", "phone", 0, 11, false, () -> {
+            // 不统计总数的加载进行中，另一个线程请求同一页并需要总数
+            try {
+                total[0] = CompletableFuture.supplyAsync(() ->
+                        productPageCache.get("newest", "phone", 0, 11, true, loader()).getTotal())
+                    .get(1, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return new ProductPageCache.Page(List.of(product(1)), -1);
+        });
+
+        assertEquals(-1, page.getTotal());
+        assertEquals(2, total[0]);
+    }
+}
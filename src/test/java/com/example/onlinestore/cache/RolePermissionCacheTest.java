@@ -0,0 +1,94 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.Permission;
+import com.example.onlinestore.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("角色权限缓存测试")
+public class RolePermissionCacheTest {
+
+    private RolePermissionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RolePermissionCache();
+        ReflectionTestUtils.setField(cache, "adminUsername", "admin");
+        configure(Map.of("operator", Set.of(Permission.PRODUCT_WRITE)), Map.of("alice", Set.of("operator")));
+    }
+
+    private void configure(Map<String, Set<Permission>> roles, Map<String, Set<String>> userRoles) {
+        cache.destroy();
+        cache.getRoles().putAll(roles);
+        cache.getUserRoles().putAll(userRoles);
+        cache.afterPropertiesSet();
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+
+    @Test
+    @DisplayName("登录时解析角色和权限位图")
+    void whenResolved_thenRolesAndPermissionsSet() {
+        User alice = user("alice");
+
+        cache.resolve(alice);
+
+        assertEquals(Set.of("operator"), alice.getRoles());
+        assertEquals(Permission.PRODUCT_WRITE.mask(), alice.getPermissions());
+        assertNotEquals(0L, alice.getPermissionRevision());
+        assertTrue(cache.hasPermission(alice, Permission.PRODUCT_WRITE));
+        assertFalse(cache.hasPermission(alice, Permission.USER_READ));
+    }
+
+    @Test
+    @DisplayName("配置的管理员拥有全部权限，未分配角色的用户没有权限")
+    void whenAdminOrUnassigned_thenAllOrNothing() {
+        for (Permission permission : Permission.values()) {
+            assertTrue(cache.hasPermission(user("admin"), permission));
+            assertFalse(cache.hasPermission(user("bob"), permission));
+        }
+    }
+
+    @Test
+    @DisplayName("配置刷新后已解析的会话按新配置重新解析")
+    void whenConfigRefreshed_thenSessionsReResolved() {
+        User alice = user("alice");
+        cache.resolve(alice);
+        long revision = alice.getPermissionRevision();
+
+        Map<String, Set<Permission>> roles = new HashMap<>();
+        roles.put("operator", Set.of(Permission.PRODUCT_WRITE));
+        roles.put("auditor", Set.of(Permission.USER_READ));
+        configure(roles, Map.of("alice", Set.of("auditor")));
+
+        assertTrue(cache.hasPermission(alice, Permission.USER_READ));
+        assertFalse(cache.hasPermission(alice, Permission.PRODUCT_WRITE));
+        assertNotEquals(revision, alice.getPermissionRevision());
+        assertEquals(Set.of("auditor"), alice.getRoles());
+    }
+
+    @Test
+    @DisplayName("相同配置生成相同版本，各节点无需重新解析")
+    void whenSameConfig_thenSameRevision() {
+        User alice = user("alice");
+        cache.resolve(alice);
+        long revision = alice.getPermissionRevision();
+
+        configure(Map.of("operator", Set.of(Permission.PRODUCT_WRITE)), Map.of("alice", Set.of("operator")));
+        cache.resolve(alice);
+
+        assertEquals(revision, alice.getPermissionRevision());
+    }
+}
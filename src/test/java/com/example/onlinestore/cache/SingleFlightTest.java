@@ -0,0 +1,92 @@
+package com.example.onlinestore.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("相同请求合并执行测试")
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING && thread.isAlive()) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("并发的相同请求只加载一次并共享结果")
+    void whenConcurrentSameKey_thenLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<String> results = new ConcurrentLinkedQueue<>();
+
+        Thread leader = new Thread(() -> results.add(singleFlight.execute("key", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "value";
+        })));
+        leader.start();
+        started.await();
+
+        List<Thread> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread follower = new Thread(() -> results.add(singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+            follower.start();
+            followers.add(follower);
+        }
+        awaitWaiting(followers);
+        release.countDown();
+        leader.join();
+        for (Thread follower : followers) {
+            follower.join();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(9, results.size());
+        assertTrue(results.stream().allMatch("value"::equals));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    @DisplayName("加载完成后不缓存结果")
+    void whenCompleted_thenNextCallLoadsAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("key", () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.execute("key", () -> "v" + loads.incrementAndGet());
+
+        assertEquals("v2", second);
+    }
+
+    @Test
+    @DisplayName("加载失败时异常抛给调用方并释放 key")
+    void whenLoaderFails_thenPropagateAndRelease() {
+        IllegalStateException failure = new IllegalStateException("down");
+
+        assertSame(failure, assertThrows(IllegalStateException.class,
+            () -> singleFlight.execute("key", () -> {
+                throw failure;
+            })));
+        assertEquals("ok", singleFlight.execute("key", () -> "ok"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.onlinestore.cache;
+
+import com.example.onlinestore.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("token近端缓存测试")
+public class TokenCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private TokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenCache, "maxSize", 10);
+        ReflectionTestUtils.setField(tokenCache, "maxTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(tokenCache, "negativeTtl", Duration.ofMinutes(1));
+    }
+
+    private static User user(LocalDateTime tokenExpireTime) {
+        User user = new User();
+        user.setUsername("user");
+        user.setTokenExpireTime(tokenExpireTime);
+        return user;
+    }
+
+    @Test
+    @DisplayName("缓存有效 token 与无效 token")
+    void whenPutValidAndInvalid_thenBothCached() {
+        User user = user(LocalDateTime.now().plusDays(1));
+        tokenCache.put("valid", user);
+        tokenCache.putInvalid("invalid");
+
+        assertSame(user, tokenCache.get("valid").getUser());
+        assertNotNull(tokenCache.get("invalid"));
+        assertNull(tokenCache.get("invalid").getUser());
+        assertNull(tokenCache.get("unknown"));
+    }
+
+    @Test
+    @DisplayName("token 已过期时不返回缓存")
+    void whenTokenExpired_thenMiss() {
+        tokenCache.put("expired", user(LocalDateTime.now().minusSeconds(1)));
+
+        assertNull(tokenCache.get("expired"));
+    }
+
+    @Test
+    @DisplayName("失效时删除本地条目并广播")
+    void whenInvalidated_thenRemoveAndPublish() {
+        tokenCache.putInvalid("token");
+
+        tokenCache.invalidate("token");
+
+        assertNull(tokenCache.get("token"));
+        verify(redisTemplate).convertAndSend(TokenCache.INVALIDATION_CHANNEL, "token");
+    }
+
+    @Test
+    @DisplayName("收到其他节点的失效消息时删除本地条目")
+    void whenInvalidationMessageReceived_thenRemove() {
+        tokenCache.put("token", user(LocalDateTime.now().plusDays(1)));
+
+        tokenCache.onMessage(new DefaultMessage(
+            TokenCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+            "token".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertNull(tokenCache.get("token"));
+    }
+
+    @Test
+    @DisplayName("超出容量时淘汰条目")
+    void whenFull_thenStayBounded() {
+        for (int i = 0; i < 100; i++) {
+            tokenCache.putInvalid("token-" + i);
+        }
+
+        int cached = 0;
+        for (int i = 0; i < 100; i++) {
+            if (tokenCache.get("token-" + i) != null) {
+                cached++;
+            }
+        }
+        assertTrue(cached <= 10);
+        assertNotNull(tokenCache.get("token-99"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.onlinestore.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("分页总数缓存测试")
+public class TotalCountCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private TotalCountCache totalCountCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(totalCountCache, "exactTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(totalCountCache, "filterTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(totalCountCache, "filterMaxSize", 10);
+    }
+
+    @Test
+    @DisplayName("Redis 中已有总数时不查询数据库")
+    void whenExactCountCached_thenSkipLoader() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("count:products")).thenReturn("42");
+
+        long total = totalCountCache.exact(TotalCountCache.PRODUCTS, () -> {
+            throw new AssertionError("不应查询数据库");
+        });
+
+        assertEquals(42, total);
+    }
+
+    @Test
+    @DisplayName("Redis 中没有总数时从数据库加载并初始化")
+    void whenExactCountMissing_thenLoadAndSeed() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("count:users")).thenReturn(null);
+
+        long total = totalCountCache.exact(TotalCountCache.USERS, () -> 7L);
+
+        assertEquals(7, total);
+        verify(valueOperations).setIfAbsent("count:users", "7", Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时回退到数据库")
+    void whenRedisUnavailable_thenFallBackToLoader() {
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(3, totalCountCache.exact(TotalCountCache.PRODUCTS, () -> 3L));
+    }
+
+    @Test
+    @DisplayName("带过滤条件的总数在有效期内只查询一次，插入后失效")
+    void whenFilteredCountCached_thenReuseUntilIncrement() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(5, totalCountCache.filtered(TotalCountCache.PRODUCTS, "phone", () -> 5L + loads.getAndIncrement()));
+        assertEquals(5, totalCountCache.filtered(TotalCountCache.PRODUCTS, "phone", () -> 5L + loads.getAndIncrement()));
+        totalCountCache.increment(TotalCountCache.PRODUCTS, 1);
+        assertEquals(6, totalCountCache.filtered(TotalCountCache.PRODUCTS, "phone", () -> 5L + loads.getAndIncrement()));
+
+        assertEquals(2, loads.get());
+        verify(redisTemplate).execute(any(), eq(Collections.singletonList("count:products")), eq("1"));
+    }
+}
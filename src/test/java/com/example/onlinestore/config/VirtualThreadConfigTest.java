@@ -0,0 +1,48 @@
+package com.example.onlinestore.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("虚拟线程配置测试")
+public class VirtualThreadConfigTest {
+
+    @Test
+    @DisplayName("Java 21 及以上创建虚拟线程执行器，否则启动失败并提示版本")
+    void whenCreatingExecutor_thenDependsOnJavaVersion() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+            assertTrue(exception.getMessage().contains("Java 21"));
+            return;
+        }
+
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+        try {
+            Boolean virtual = executor.submit(
+                () -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+            assertTrue(virtual);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("关闭时停止 Tomcat 使用的虚拟线程执行器")
+    void whenDestroyed_thenShutDownExecutor() throws Exception {
+        VirtualThreadConfig config = new VirtualThreadConfig();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(config, "executor", executor);
+
+        config.destroy();
+
+        assertTrue(executor.isTerminated());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.onlinestore.config;
+
+import com.example.onlinestore.validation.ParameterValidationExceptionHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("请求守卫模式配置测试")
+public class WebGuardConfigTest {
+
+    /**
+     * 与应用相同，通过组件扫描注册验证相关的 Bean
+     */
+    @Configuration
+    @ComponentScan(basePackageClasses = ParameterValidationExceptionHandler.class)
+    @Import(WebGuardConfig.class)
+    static class ScanConfig {
+    }
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withUserConfiguration(ScanConfig.class);
+
+    @Test
+    @DisplayName("拦截器模式下上下文正常启动，只注册一个参数验证异常处理器")
+    void whenInterceptorMode_thenRegisterExceptionHandlerOnce() {
+        contextRunner.withPropertyValues("web.guard.mode=interceptor").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(1, context.getBeansOfType(ParameterValidationExceptionHandler.class).size());
+            assertEquals(1, context.getBeansOfType(WebGuardConfig.class).size());
+        });
+    }
+
+    @Test
+    @DisplayName("切面模式下不注册拦截器模式的异常处理器")
+    void whenAspectMode_thenNoExceptionHandler() {
+        contextRunner.run(context -> {
+            assertNull(context.getStartupFailure());
+            assertTrue(context.getBeansOfType(ParameterValidationExceptionHandler.class).isEmpty());
+            assertTrue(context.getBeansOfType(WebGuardConfig.class).isEmpty());
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.onlinestore.context;
+
+import com.example.onlinestore.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("用户上下文传递测试")
+public class UserContextTest {
+
+    @AfterEach
+    void tearDown() {
+        UserContext.clear();
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+
+    @Test
+    @DisplayName("异步任务使用提交时的用户，不复制对象")
+    void whenTaskWrapped_thenPropagateSameUser() throws Exception {
+        User user = user("admin");
+        UserContext.setCurrentUser(user);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            User seen = CompletableFuture.supplyAsync(
+                UserContext.capture().wrapSupplier(UserContext::getCurrentUser), executor).get();
+            User afterwards = executor.submit(UserContext::getCurrentUser).get();
+
+            assertSame(user, seen);
+            assertNull(afterwards);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("包装后的执行器传递用户")
+    void whenExecutorPropagating_thenTaskSeesUser() throws Exception {
+        User user = user("admin");
+        UserContext.setCurrentUser(user);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicReference<User> seen = new AtomicReference<>();
+        try {
+            CompletableFuture.runAsync(() -> seen.set(UserContext.getCurrentUser()),
+                UserContext.propagating(executor)).get();
+
+            assertSame(user, seen.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("在调用线程上执行时结束后恢复原来的用户")
+    void whenRunWithOnSameThread_thenRestorePrevious() {
+        User outer = user("outer");
+        User inner = user("inner");
+        UserContext.setCurrentUser(outer);
+        AtomicReference<User> seen = new AtomicReference<>();
+
+        UserContext.runWith(inner, () -> seen.set(UserContext.getCurrentUser()));
+
+        assertSame(inner, seen.get());
+        assertSame(outer, UserContext.getCurrentUser());
+    }
+
+    @Test
+    @DisplayName("TaskDecorator 传递用户且没有用户时清空执行线程")
+    void whenDecorated_thenPropagateOrClear() {
+        User user = user("admin");
+        UserContextTaskDecorator decorator = new UserContextTaskDecorator();
+        AtomicReference<User> seen = new AtomicReference<>();
+
+        Runnable anonymous = decorator.decorate(() -> seen.set(UserContext.getCurrentUser()));
+        UserContext.setCurrentUser(user);
+        anonymous.run();
+        assertNull(seen.get());
+
+        decorator.decorate(() -> seen.set(UserContext.getCurrentUser())).run();
+        assertSame(user, seen.get());
+        assertSame(user, UserContext.getCurrentUser());
+    }
+}
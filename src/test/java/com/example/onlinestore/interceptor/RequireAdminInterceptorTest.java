@@ -0,0 +1,151 @@
+package com.example.onlinestore.interceptor;
+
+import com.example.onlinestore.annotation.RequireAdmin;
+import com.example.onlinestore.cache.RolePermissionCache;
+import com.example.onlinestore.context.UserContext;
+import com.example.onlinestore.model.Permission;
+import com.example.onlinestore.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("管理员权限拦截器测试")
+public class RequireAdminInterceptorTest {
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private RolePermissionCache rolePermissionCache;
+
+    @InjectMocks
+    private RequireAdminInterceptor interceptor;
+
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ACCESS_DENIED_MESSAGE = "访问被拒绝";
+
+    private HandlerMethod adminMethod;
+    private HandlerMethod publicMethod;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        interceptor.adminUsername = ADMIN_USERNAME;
+        SampleController controller = new SampleController();
+        adminMethod = new HandlerMethod(controller, SampleController.class.getMethod("create"));
+        publicMethod = new HandlerMethod(controller, SampleController.class.getMethod("list"));
+        interceptor.register(List.of(adminMethod, publicMethod));
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        UserContext.clear();
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+
+    @Test
+    @DisplayName("管理员访问成功")
+    void whenUserIsAdmin_thenAllowAccess() throws Exception {
+        UserContext.setCurrentUser(user(ADMIN_USERNAME));
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, adminMethod));
+        verifyNoInteractions(messageSource);
+    }
+
+    @Test
+    @DisplayName("非管理员访问失败，与切面一样抛出 IllegalArgumentException")
+    void whenUserIsNotAdmin_thenThrowException() {
+        when(messageSource.getMessage(eq("error.access.denied"), any(), eq(LocaleContextHolder.getLocale())))
+            .thenReturn(ACCESS_DENIED_MESSAGE);
+        UserContext.setCurrentUser(user("user"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> interceptor.preHandle(new MockHttpServletRequest(), response, adminMethod));
+        assertEquals(ACCESS_DENIED_MESSAGE, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("拥有所需权限的非管理员访问成功")
+    void whenUserHasPermission_thenAllowAccess() throws Exception {
+        User operator = user("operator");
+        when(rolePermissionCache.hasPermission(operator, Permission.PRODUCT_WRITE)).thenReturn(true);
+        UserContext.setCurrentUser(operator);
+        HandlerMethod writeMethod = new HandlerMethod(new SampleController(),
+            SampleController.class.getMethod("update"));
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, writeMethod));
+    }
+
+    @Test
+    @DisplayName("未登录用户访问失败，抛出 IllegalArgumentException")
+    void whenUserIsNull_thenThrowException() {
+        when(messageSource.getMessage(eq("error.access.denied"), any(), eq(LocaleContextHolder.getLocale())))
+            .thenReturn(ACCESS_DENIED_MESSAGE);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> interceptor.preHandle(new MockHttpServletRequest(), response, adminMethod));
+    }
+
+    @Test
+    @DisplayName("未标注 @RequireAdmin 的方法不检查权限")
+    void whenMethodNotAnnotated_thenAllowAccess() throws Exception {
+        UserContext.setCurrentUser(user("user"));
+
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, publicMethod));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), response, new Object()));
+    }
+
+    @Test
+    @DisplayName("未扫描到的方法在首次访问时检查注解")
+    void whenMethodNotScanned_thenResolveOnFirstAccess() throws Exception {
+        when(messageSource.getMessage(eq("error.access.denied"), any(), eq(LocaleContextHolder.getLocale())))
+            .thenReturn(ACCESS_DENIED_MESSAGE);
+        HandlerMethod unscanned = new HandlerMethod(new SampleController(),
+            SampleController.class.getMethod("delete"));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> interceptor.preHandle(new MockHttpServletRequest(), response, unscanned));
+    }
+
+    static class SampleController {
+        @RequireAdmin
+        public void create() {
+        }
+
+        public void list() {
+        }
+
+        @RequireAdmin
+        public void delete() {
+        }
+
+        @RequireAdmin(Permission.PRODUCT_WRITE)
+        public void update() {
+        }
+    }
+}
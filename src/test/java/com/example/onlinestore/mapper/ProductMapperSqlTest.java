@@ -0,0 +1,198 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.cache.ProductCache;
+import com.example.onlinestore.dto.ProductSort;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.model.ProductFixtures;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("商品Mapper SQL生成测试")
+public class ProductMapperSqlTest {
+
+    private static Configuration configuration(boolean fullTextEnabled) throws Exception {
+        Configuration configuration = new Configuration();
+        Properties properties = new Properties();
+        properties.setProperty("product.search.fulltext-enabled", String.valueOf(fullTextEnabled));
+        configuration.setVariables(properties);
+        ClassPathResource resource = new ClassPathResource("mapper/ProductMapper.xml");
+        try (InputStream inputStream = resource.getInputStream()) {
+            new XMLMapperBuilder(inputStream, configuration, resource.getPath(), configuration.getSqlFragments())
+                .parse();
+        }
+        return configuration;
+    }
+
+    private static String sql(Configuration configuration, String statement, Map<String, Object> params) {
+        BoundSql boundSql = configuration.getMappedStatement(ProductMapper.class.getName() + "." + statement)
+            .getBoundSql(params);
+        return boundSql.getSql().replaceAll("\\s+", " ").trim();
+    }
+
+    private static Map<String, Object> nameParams(String name) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", name);
+        params.put("category", null);
+        params.put("offset", 0);
+        params.put("limit", 10);
+        return params;
+    }
+
+    @Test
+    @DisplayName("未开启全文索引时只使用 LIKE")
+    void whenFullTextDisabled_thenOnlyLike() throws Exception {
+        String sql = sql(configuration(false), "findWithPagination", nameParams("phone"));
+
+        assertFalse(sql.contains("MATCH"));
+        assertTrue(sql.contains("name LIKE ? ESCAPE '\\\\'"));
+    }
+
+    @Test
+    @DisplayName("开启全文索引时先用全文索引缩小范围")
+    void whenFullTextEnabled_thenMatchAndLike() throws Exception {
+        Configuration configuration = configuration(true);
+
+        String sql = sql(configuration, "countTotal", nameParams("phone"));
+        String shortKeyword = sql(configuration, "countTotal", nameParams("p"));
+        String spacedKeyword = sql(configuration, "countTotal", nameParams("a b"));
+        String quotedKeyword = sql(configuration, "countTotal", nameParams("12\" tv"));
+
+        assertTrue(sql.contains("MATCH(name) AGAINST(CONCAT('\"', ?, '\"') IN BOOLEAN MODE)"));
+        assertTrue(sql.contains("name LIKE"));
+        assertFalse(shortKeyword.contains("MATCH"));
+        // 没有可索引的二元组或含有双引号时只使用 LIKE
+        assertFalse(spacedKeyword.contains("MATCH"));
+        assertFalse(quotedKeyword.contains("MATCH"));
+        assertTrue(sql(configuration, "countTotal", nameParams("X 10")).contains("MATCH"));
+    }
+
+    @Test
+    @DisplayName("游标分页按 (created_at, id) 定位")
+    void whenSeekingAfterCursor_thenUseCreatedAtAndId() throws Exception {
+        Map<String, Object> params = nameParams(null);
+        params.put("createdAt", LocalDateTime.now());
+        params.put("id", 1L);
+
+        String sql = sql(configuration(false), "findAfterCursor", params);
+
+        assertTrue(sql.contains("(created_at < ? OR (created_at = ? AND id < ?))"));
+        assertTrue(sql.endsWith("ORDER BY created_at DESC, id DESC LIMIT ?"));
+    }
+
+    @Test
+    @DisplayName("流式查询使用 MySQL 逐行返回的结果集")
+    void whenStreaming_thenForwardOnlyWithMinFetchSize() throws Exception {
+        Configuration configuration = configuration(false);
+
+        for (String statement : new String[]{"scanNewest", "streamAll"}) {
+            MappedStatement mappedStatement =
+                configuration.getMappedStatement(ProductMapper.class.getName() + "." + statement);
+            assertEquals(ResultSetType.FORWARD_ONLY, mappedStatement.getResultSetType());
+            assertEquals(Integer.MIN_VALUE, mappedStatement.getFetchSize());
+        }
+        assertTrue(sql(configuration, "scanNewest", nameParams(null)).endsWith("ORDER BY created_at DESC, id DESC LIMIT ?"));
+    }
+
+    @Test
+    @DisplayName("分类过滤使用等值条件")
+    void whenCategoryGiven_thenFilterByEquality() throws Exception {
+        Map<String, Object> params = nameParams(null);
+        params.put("category", "phone");
+
+        String sql = sql(configuration(false), "findWithPagination", params);
+
+        assertEquals("SELECT id, name, category, price, created_at, updated_at FROM products "
+            + "WHERE category = ? ORDER BY created_at DESC, id DESC LIMIT ?, ?", sql);
+        assertTrue(sql(configuration(false), "countTotal", params).endsWith("WHERE category = ?"));
+    }
+
+    @Test
+    @DisplayName("价格区间与价格排序使用 (price, created_at, id) 索引顺序")
+    void whenPriceFilterAndSortGiven_thenRangeAndOrderByPrice() throws Exception {
+        Map<String, Object> params = nameParams(null);
+        params.put("minPrice", new BigDecimal("10"));
+        params.put("maxPrice", new BigDecimal("20"));
+        params.put("sort", ProductSort.PRICE_DESC);
+        Configuration configuration = configuration(false);
+
+        String descending = sql(configuration, "findWithPagination", params);
+        params.put("sort", ProductSort.PRICE_ASC);
+        String ascending = sql(configuration, "findWithPagination", params);
+        params.put("maxPrice", null);
+
+        assertEquals("SELECT id, name, category, price, created_at, updated_at FROM products "
+            + "WHERE price >= ? AND price <= ? ORDER BY price DESC, created_at DESC, id DESC LIMIT ?, ?", descending);
+        assertTrue(ascending.endsWith("ORDER BY price ASC, created_at ASC, id ASC LIMIT ?, ?"));
+        assertTrue(sql(configuration, "countTotal", params).endsWith("WHERE price >= ?"));
+    }
+
+    /**
+     * 按 MySQL 的 LIKE ... ESCAPE '\\' 语义（不区分大小写）判断是否匹配
+     */
+    private static boolean like(String value, String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()) {
+                regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL)
+            .matcher(value).matches();
+    }
+
+    @Test
+    @DisplayName("名称中的 %、_ 和 \\ 按字面匹配，数据库与缓存两条路径结果相同")
+    void whenKeywordHasWildcards_thenDatabaseMatchesCache() throws Exception {
+        List<Product> products = new ArrayList<>();
+        String[] names = {"50% off", "500 pens", "a_b", "axb", "C:\\temp", "C:temp"};
+        for (int i = 0; i < names.length; i++) {
+            products.add(ProductFixtures.product(i + 1, names[i]));
+        }
+        ProductCache cache = new ProductCache();
+        ReflectionTestUtils.setField(cache, "capacity", 10);
+        cache.load(products);
+        Configuration configuration = configuration(false);
+
+        for (String keyword : new String[]{"50%", "a_b", "C:\\", "%", "_"}) {
+            BoundSql boundSql = configuration.getMappedStatement(ProductMapper.class.getName() + ".countTotal")
+                .getBoundSql(nameParams(keyword));
+            String pattern = (String) boundSql.getAdditionalParameter("namePattern");
+
+            List<String> database = products.stream()
+                .filter(product -> like(product.getName(), pattern))
+                .map(Product::getName).sorted().collect(Collectors.toList());
+            List<String> cached = cache.searchByName(keyword).stream()
+                .map(Product::getName).sorted().collect(Collectors.toList());
+            assertEquals(cached, database, keyword);
+        }
+        assertEquals(List.of("50% off"),
+            cache.searchByName("50%").stream().map(Product::getName).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.model.User;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("用户Mapper SQL生成测试")
+public class UserMapperSqlTest {
+
+    private static MappedStatement statement(String id) throws Exception {
+        Configuration configuration = new Configuration();
+        ClassPathResource resource = new ClassPathResource("mapper/UserMapper.xml");
+        try (InputStream inputStream = resource.getInputStream()) {
+            new XMLMapperBuilder(inputStream, configuration, resource.getPath(), configuration.getSqlFragments())
+                .parse();
+        }
+        return configuration.getMappedStatement(UserMapper.class.getName() + "." + id);
+    }
+
+    @Test
+    @DisplayName("登录使用单条 upsert 语句并回填id")
+    void whenUpsertUser_thenSingleStatementReturningId() throws Exception {
+        MappedStatement statement = statement("upsertUser");
+        User user = new User();
+        user.setUsername("user");
+
+        String sql = statement.getBoundSql(user).getSql().replaceAll("\\s+", " ").trim();
+
+        assertTrue(sql.startsWith("INSERT INTO users"));
+        assertTrue(sql.contains("ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)"));
+        // 由 selectKey 读取 LAST_INSERT_ID()，不使用 JDBC 生成的主键
+        assertInstanceOf(SelectKeyGenerator.class, statement.getKeyGenerator());
+        MappedStatement selectKey = statement("upsertUser" + SelectKeyGenerator.SELECT_KEY_SUFFIX);
+        assertArrayEquals(new String[]{"id"}, selectKey.getKeyProperties());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.onlinestore.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 测试用商品数据
+ *
+ * 未指定时名称为 product-{id}，创建时间为 BASE_TIME 之后 id 分钟，更新时间与创建时间相同
+ */
+public final class ProductFixtures {
+
+    public static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private ProductFixtures() {
+    }
+
+    public static Product product(long id) {
+        return product(id, "product-" + id);
+    }
+
+    public static Product product(long id, String name) {
+        return product(id, name, BASE_TIME.plusMinutes(id));
+    }
+
+    public static Product product(long id, LocalDateTime createdAt) {
+        return product(id, "product-" + id, createdAt);
+    }
+
+    public static Product product(long id, String name, LocalDateTime createdAt) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory("category");
+        product.setPrice(BigDecimal.TEN);
+        product.setCreatedAt(createdAt);
+        product.setUpdatedAt(createdAt);
+        return product;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.ProductFileFormat;
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.service.impl.ProductExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.example.onlinestore.model.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("商品导出测试")
+public class ProductExportServiceTest {
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private Cursor<Product> cursor;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @InjectMocks
+    private ProductExportServiceImpl productExportService;
+
+    private String export(ProductFileFormat format, List<Product> products) throws Exception {
+        when(productMapper.streamAll()).thenReturn(cursor);
+        when(cursor.iterator()).thenReturn(products.iterator());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(products.size(), productExportService.exportProducts(format, output));
+        verify(cursor).close();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("NDJSON 每行一个商品")
+    void whenExportNdjson_thenOneJsonPerLine() throws Exception {
+        String body = export(ProductFileFormat.NDJSON, List.of(product(1, "手机"), product(2, "平板")));
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("手机", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals(2, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("CSV 输出表头并转义特殊字符")
+    void whenExportCsv_thenHeaderAndQuotedFields() throws Exception {
+        String body = export(ProductFileFormat.CSV, List.of(product(1, "手机, \"旗舰\"")));
+
+        assertEquals("id,name,category,price,created_at,updated_at\n"
+            + "1,\"手机, \"\"旗舰\"\"\",category,10,2024-01-01T00:01,2024-01-01T00:01\n", body);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.cache.ProductCache;
+import com.example.onlinestore.cache.ProductChangeFeed;
+import com.example.onlinestore.cache.TotalCountCache;
+import com.example.onlinestore.dto.ProductFileFormat;
+import com.example.onlinestore.dto.ProductImportResult;
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.model.ProductFixtures;
+import com.example.onlinestore.service.impl.ProductExportServiceImpl;
+import com.example.onlinestore.service.impl.ProductImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    @Mock
+    private SqlSessionTemplate batchSqlSession;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private TotalCountCache totalCountCache;
+
+    @Mock
+    private ProductChangeFeed productChangeFeed;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ProductImportServiceImpl productImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(productImportService, "maxErrors", 10);
+        ReflectionTestUtils.setField(productImportService, "batchSqlSession", batchSqlSession);
+        ReflectionTestUtils.setField(productImportService, "transactionTemplate",
+            new TransactionTemplate(transactionManager));
+        lenient().when(batchSqlSession.getMapper(ProductMapper.class)).thenReturn(productMapper);
+        // 直接返回消息键，便于断言
+        lenient().when(messageSource.getMessage(anyString(), any(), any(Locale.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void whenNdjsonImported_thenInsertInChunks() throws IOException {
+        String body = """
+            {"name":"手机","category":"数码","price":1999.00}
+            {"name":"耳机","category":"数码","price":199.00}
+
+            {"name":"键盘","category":"外设","price":299.00}
+            """;
+
+        ProductImportResult result = productImportService.importProducts(
+            new StringReader(body), ProductFileFormat.NDJSON);
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals(2, result.getChunks().size());
+        assertEquals(1, result.getChunks().get(0).getFirstLine());
+        assertEquals(4, result.getChunks().get(1).getFirstLine());
+        ArgumentCaptor<Product> inserted = ArgumentCaptor.forClass(Product.class);
+        verify(productMapper, times(3)).insertProduct(inserted.capture());
+        assertEquals("键盘", inserted.getAllValues().get(2).getName());
+        assertNotNull(inserted.getAllValues().get(0).getCreatedAt());
+        // 每个批次一次批量提交、一个事务
+        verify(batchSqlSession, times(2)).flushStatements();
+        verify(transactionManager, times(2)).commit(any());
+        verify(totalCountCache).increment(TotalCountCache.PRODUCTS, 2);
+        verify(totalCountCache).increment(TotalCountCache.PRODUCTS, 1);
+    }
+
+    @Test
+    void whenCsvRowsInvalid_thenReportErrorsWithLineNumbers() throws IOException {
+        String body = """
+            price,name,category
+            1999.00,"手机, 5G",数码
+            abc,耳机,数码
+            ,键盘,外设
+            """;
+
+        ProductImportResult result = productImportService.importProducts(
+            new StringReader(body), ProductFileFormat.CSV);
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        List<ProductImportResult.RowError> errors = result.getChunks().stream()
+            .flatMap(chunk -> chunk.getErrors().stream()).toList();
+        assertEquals(3, errors.get(0).getLine());
+        assertEquals("error.product.import.row.invalid", errors.get(0).getMessage());
+        assertEquals(4, errors.get(1).getLine());
+        assertEquals("error.product.price.empty", errors.get(1).getMessage());
+        ArgumentCaptor<Product> inserted = ArgumentCaptor.forClass(Product.class);
+        verify(productMapper).insertProduct(inserted.capture());
+        assertEquals("手机, 5G", inserted.getValue().getName());
+        assertEquals(new BigDecimal("1999.00"), inserted.getValue().getPrice());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenExportedCsvHasNewlineInName_thenImportBack() throws IOException {
+        Product product = ProductFixtures.product(1, "手机\n\"旗舰\", 5G");
+        Cursor<Product> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(List.of(product).iterator());
+        ProductMapper exportMapper = mock(ProductMapper.class);
+        when(exportMapper.streamAll()).thenReturn(cursor);
+        ProductExportServiceImpl productExportService = new ProductExportServiceImpl();
+        ReflectionTestUtils.setField(productExportService, "productMapper", exportMapper);
+        ReflectionTestUtils.setField(productExportService, "objectMapper", objectMapper);
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        productExportService.exportProducts(ProductFileFormat.CSV, exported);
+
+        ProductImportResult result = productImportService.importProducts(
+            new StringReader(exported.toString(StandardCharsets.UTF_8) + ",键盘,外设,299.00,,\n"), ProductFileFormat.CSV);
+
+        assertEquals(2, result.getTotalRows());
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getFailed());
+        ArgumentCaptor<Product> inserted = ArgumentCaptor.forClass(Product.class);
+        verify(productMapper, times(2)).insertProduct(inserted.capture());
+        assertEquals(product.getName(), inserted.getAllValues().get(0).getName());
+        assertEquals(product.getCategory(), inserted.getAllValues().get(0).getCategory());
+        assertEquals(product.getPrice(), inserted.getAllValues().get(0).getPrice());
+        assertEquals("键盘", inserted.getAllValues().get(1).getName());
+    }
+
+    @Test
+    void whenCsvQuoteNeverClosed_thenReportRowError() throws IOException {
+        String body = "name,category,price\n\"手机,数码,1999.00\n耳机,数码,199.00\n";
+
+        ProductImportResult result = productImportService.importProducts(
+            new StringReader(body), ProductFileFormat.CSV);
+
+        assertEquals(1, result.getTotalRows());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getChunks().get(0).getErrors().get(0).getLine());
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void whenCsvHeaderMissingColumn_thenThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> productImportService.importProducts(
+            new StringReader("name,category\n手机,数码\n"), ProductFileFormat.CSV));
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void whenChunkFails_thenRollbackChunkAndContinue() throws IOException {
+        when(batchSqlSession.flushStatements())
+            .thenThrow(new DataIntegrityViolationException("Data too long"))
+            .thenReturn(List.of());
+        String body = """
+            {"name":"手机","category":"数码","price":1999.00}
+            {"name":"耳机","category":"数码","price":199.00}
+            {"name":"键盘","category":"外设","price":299.00}
+            """;
+
+        ProductImportResult result = productImportService.importProducts(
+            new StringReader(body), ProductFileFormat.NDJSON);
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals("error.product.import.chunk.failed", result.getChunks().get(0).getErrors().get(0).getMessage());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        // 只有提交成功的批次进入缓存
+        verify(productCache, times(1)).putAll(anyList());
+        verify(productChangeFeed, times(1)).publish(anyList());
+    }
+}
@@ -0,0 +1,391 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.cache.ProductCache;
+import com.example.onlinestore.cache.ProductChangeFeed;
+import com.example.onlinestore.cache.ProductPageCache;
+import com.example.onlinestore.cache.TotalCountCache;
+import com.example.onlinestore.dto.CreateProductRequest;
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.dto.ProductSort;
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static com.example.onlinestore.model.ProductFixtures.BASE_TIME;
+import static com.example.onlinestore.model.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductServiceTest {
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private TotalCountCache totalCountCache;
+
+    @Mock
+    private ProductChangeFeed productChangeFeed;
+
+    @Spy
+    private ProductCache productCache = new ProductCache();
+
+    /**
+     * 未开启时直接调用数据库查询
+     */
+    @Spy
+    private ProductPageCache productPageCache = new ProductPageCache();
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productCache, "capacity", 100);
+    }
+
+    /**
+     * 模拟启动预热：缓存加载最新的 capacity 个商品
+     */
+    private void warm(List<Product> products) {
+        List<Product> newest = new ArrayList<>(
+            products.subList(0, Math.min(products.size(), productCache.getCapacity())));
+        Collections.reverse(newest);
+        productCache.load(newest);
+    }
+
+    /**
+     * 模拟数据库按 created_at DESC, id DESC 返回的全量商品
+     */
+    private static List<Product> catalog(int size) {
+        List<Product> products = new ArrayList<>();
+        for (long id = size; id >= 1; id--) {
+            products.add(product(id, id % 2 == 0 ? "Phone " + id : "Laptop " + id, BASE_TIME.plusMinutes(id / 2)));
+        }
+        products.sort((a, b) -> {
+            int byTime = b.getCreatedAt().compareTo(a.getCreatedAt());
+            return byTime != 0 ? byTime : Long.compare(b.getId(), a.getId());
+        });
+        return products;
+    }
+
+    private static List<Long> ids(PageResponse<Product> response) {
+        return response.getRecords().stream().map(Product::getId).collect(Collectors.toList());
+    }
+
+    private static ProductPageRequest pageRequest(int pageNum, int pageSize) {
+        ProductPageRequest request = new ProductPageRequest();
+        request.setPageNum(pageNum);
+        request.setPageSize(pageSize);
+        return request;
+    }
+
+    private static CreateProductRequest createRequest(String name) {
+        CreateProductRequest request = new CreateProductRequest();
+        request.setName(name);
+        request.setCategory("phone");
+        request.setPrice(BigDecimal.TEN);
+        return request;
+    }
+
+    /**
+     * 在事务同步中创建商品，以指定的事务结果结束
+     */
+    private Product createInTransaction(String name, boolean commit) {
+        doAnswer(invocation -> {
+            invocation.<Product>getArgument(0).setId(100L);
+            return null;
+        }).when(productMapper).insertProduct(any(Product.class));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Product product = productService.createProduct(createRequest(name));
+            assertNull(productCache.get(100L));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(commit
+                ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+            return product;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void whenCreateProductCommitted_thenAddToCache() {
+        warm(catalog(3));
+
+        Product product = createInTransaction("tablet", true);
+
+        assertSame(product, productCache.get(100L));
+        verify(productChangeFeed).publish(List.of(product));
+    }
+
+    @Test
+    void whenCreateProductRolledBack_thenNotCached() {
+        warm(catalog(3));
+
+        createInTransaction("tablet", false);
+
+        assertNull(productCache.get(100L));
+        assertEquals(3, productCache.size());
+    }
+
+    @Test
+    void whenCacheServesList_thenPagesMatchDatabaseOrder() {
+        List<Product> products = catalog(10);
+        warm(products);
+
+        PageResponse<Product> response = productService.listProducts(pageRequest(2, 3));
+
+        assertEquals(Arrays.asList(7L, 6L, 5L), ids(response));
+        assertEquals(10, response.getTotal());
+        assertNotNull(response.getNextCursor());
+        verify(productMapper, never()).findWithPagination(any(), any(), any(), any(), any(), anyInt(), anyInt());
+        verify(productMapper, never()).countTotal(any(), any(), any(), any());
+    }
+
+    @Test
+    void whenCacheNotWarmedUp_thenQueryDatabaseWithoutLoading() {
+        List<Product> products = catalog(10);
+        when(productMapper.findWithPagination(isNull(), isNull(), isNull(), isNull(), eq(ProductSort.NEWEST), eq(0), eq(4)))
+            .thenReturn(products.subList(0, 4));
+        when(totalCountCache.exact(eq(TotalCountCache.PRODUCTS), any())).thenReturn(10L);
+
+        PageResponse<Product> response = productService.listProducts(pageRequest(1, 3));
+
+        assertEquals(Arrays.asList(10L, 9L, 8L), ids(response));
+        assertEquals(10, response.getTotal());
+        verify(productMapper, never()).scanNewest(anyInt(), any());
+        assertTrue(productCache.isEmpty());
+    }
+
+    @Test
+    void whenNameFilterOnCache_thenMatchCaseInsensitively() {
+        warm(catalog(10));
+
+        ProductPageRequest request = pageRequest(1, 10);
+        request.setName("phone");
+        PageResponse<Product> response = productService.listProducts(request);
+
+        assertEquals(Arrays.asList(10L, 8L, 6L, 4L, 2L), ids(response));
+        assertEquals(5, response.getTotal());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void whenCategoryFilterOnCache_thenUseCategoryIndex() {
+        List<Product> products = catalog(10);
+        products.stream().filter(product -> product.getId() % 3 == 0).forEach(product -> product.setCategory("Tablet"));
+        warm(products);
+
+        ProductPageRequest request = pageRequest(1, 2);
+        request.setCategory("tablet");
+        PageResponse<Product> byCategory = productService.listProducts(request);
+        request.setName("phone");
+        PageResponse<Product> byNameAndCategory = productService.listProducts(request);
+
+        assertEquals(Arrays.asList(9L, 6L), ids(byCategory));
+        assertEquals(3, byCategory.getTotal());
+        assertNotNull(byCategory.getNextCursor());
+        assertEquals(Arrays.asList(6L), ids(byNameAndCategory));
+        assertEquals(1, byNameAndCategory.getTotal());
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void whenCategoryFilterOnDatabase_thenPassCategoryAndCountSeparately() {
+        ReflectionTestUtils.setField(productCache, "capacity", 5);
+        List<Product> products = catalog(10);
+        warm(products);
+        when(productMapper.findWithPagination(isNull(), eq("tablet"), isNull(), isNull(), eq(ProductSort.NEWEST), eq(0), eq(4)))
+            .thenReturn(products.subList(0, 1));
+        when(totalCountCache.filtered(eq(TotalCountCache.PRODUCTS), eq("0:6:tablet0:0:"), any())).thenReturn(1L);
+
+        ProductPageRequest request = pageRequest(1, 3);
+        request.setCategory("tablet");
+        PageResponse<Product> response = productService.listProducts(request);
+
+        assertEquals(1, response.getRecords().size());
+        assertEquals(1, response.getTotal());
+        verify(totalCountCache, never()).exact(any(), any());
+    }
+
+    @Test
+    void whenNameContainsSeparator_thenCountKeyDiffersFromNameAndCategory() {
+        ReflectionTestUtils.setField(productCache, "capacity", 5);
+        warm(catalog(10));
+        when(productMapper.findWithPagination(any(), any(), any(), any(), any(), anyInt(), anyInt()))
+            .thenReturn(Collections.emptyList());
+
+        ProductPageRequest byName = pageRequest(1, 3);
+        byName.setName("a\0b");
+        productService.listProducts(byName);
+        ProductPageRequest byNameAndCategory = pageRequest(1, 3);
+        byNameAndCategory.setName("a");
+        byNameAndCategory.setCategory("b");
+        productService.listProducts(byNameAndCategory);
+
+        verify(totalCountCache).filtered(eq(TotalCountCache.PRODUCTS), eq("3:a\0b0:0:0:"), any());
+        verify(totalCountCache).filtered(eq(TotalCountCache.PRODUCTS), eq("1:a1:b0:0:"), any());
+    }
+
+    @Test
+    void whenFollowingNextCursor_thenReturnNextPage() {
+        warm(catalog(10));
+
+        PageResponse<Product> first = productService.listProducts(pageRequest(1, 4));
+        ProductPageRequest next = pageRequest(1, 4);
+        next.setCursor(first.getNextCursor());
+        PageResponse<Product> second = productService.listProducts(next);
+
+        assertEquals(Arrays.asList(10L, 9L, 8L, 7L), ids(first));
+        assertEquals(Arrays.asList(6L, 5L, 4L, 3L), ids(second));
+    }
+
+    @Test
+    void whenCacheIsFull_thenSeekOnDatabaseWithCursor() {
+        ReflectionTestUtils.setField(productCache, "capacity", 5);
+        List<Product> products = catalog(10);
+        warm(products);
+        when(productMapper.findWithPagination(isNull(), isNull(), isNull(), isNull(), eq(ProductSort.NEWEST), eq(0), eq(4)))
+            .thenReturn(products.subList(0, 4));
+        when(totalCountCache.exact(eq(TotalCountCache.PRODUCTS), any())).thenReturn(10L);
+
+        PageResponse<Product> first = productService.listProducts(pageRequest(1, 3));
+        Product last = first.getRecords().get(2);
+        when(productMapper.findAfterCursor(isNull(), isNull(), isNull(), isNull(), eq(last.getCreatedAt()), eq(last.getId()), eq(4)))
+            .thenReturn(products.subList(3, 7));
+
+        ProductPageRequest next = pageRequest(1, 3);
+        next.setCursor(first.getNextCursor());
+        PageResponse<Product> second = productService.listProducts(next);
+
+        assertEquals(Arrays.asList(10L, 9L, 8L), ids(first));
+        assertEquals(Arrays.asList(7L, 6L, 5L), ids(second));
+        assertEquals(10, second.getTotal());
+    }
+
+    @Test
+    void whenTotalNotRequested_thenSkipCounting() {
+        ReflectionTestUtils.setField(productCache, "capacity", 5);
+        List<Product> products = catalog(10);
+        warm(products);
+        when(productMapper.findWithPagination(eq("phone"), isNull(), isNull(), isNull(), eq(ProductSort.NEWEST), eq(0), eq(4)))
+            .thenReturn(products.subList(0, 2));
+
+        ProductPageRequest request = pageRequest(1, 3);
+        request.setName("phone");
+        request.setIncludeTotal(false);
+        PageResponse<Product> response = productService.listProducts(request);
+
+        assertEquals(PageResponse.TOTAL_NOT_COUNTED, response.getTotal());
+        assertNull(response.getNextCursor());
+        verifyNoInteractions(totalCountCache);
+        verify(productMapper, never()).countTotal(any(), any(), any(), any());
+    }
+
+    @Test
+    void whenPriceRangeAndSortOnCache_thenUsePriceIndex() {
+        List<Product> products = catalog(10);
+        products.forEach(product -> product.setPrice(BigDecimal.valueOf(product.getId() % 5)));
+        warm(products);
+
+        ProductPageRequest request = pageRequest(1, 3);
+        request.setMinPrice(new BigDecimal("1.5"));
+        request.setMaxPrice(new BigDecimal("3"));
+        PageResponse<Product> newest = productService.listProducts(request);
+        request.setSort("price_asc");
+        PageResponse<Product> ascending = productService.listProducts(request);
+        request.setSort("price_desc");
+        PageResponse<Product> descending = productService.listProducts(request);
+        request.setName("phone");
+        PageResponse<Product> byName = productService.listProducts(request);
+
+        assertEquals(Arrays.asList(8L, 7L, 3L), ids(newest));
+        assertEquals(4, newest.getTotal());
+        assertNotNull(newest.getNextCursor());
+        // 同价按创建时间从旧到新，倒序时从新到旧
+        assertEquals(Arrays.asList(2L, 7L, 3L), ids(ascending));
+        assertEquals(Arrays.asList(8L, 3L, 7L), ids(descending));
+        assertNull(ascending.getNextCursor());
+        assertEquals(Arrays.asList(8L, 2L), ids(byName));
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void whenPriceSortOnDatabase_thenPassSortAndPriceFilter() {
+        ReflectionTestUtils.setField(productCache, "capacity", 5);
+        List<Product> products = catalog(10);
+        warm(products);
+        when(productMapper.findWithPagination(isNull(), isNull(), eq(new BigDecimal("10.00")), isNull(),
+            eq(ProductSort.PRICE_DESC), eq(0), eq(4))).thenReturn(products.subList(0, 4));
+        when(totalCountCache.filtered(eq(TotalCountCache.PRODUCTS), eq("0:0:2:100:"), any())).thenReturn(10L);
+
+        ProductPageRequest request = pageRequest(1, 3);
+        request.setMinPrice(new BigDecimal("10.00"));
+        request.setSort("PRICE_DESC");
+        PageResponse<Product> response = productService.listProducts(request);
+
+        assertEquals(3, response.getRecords().size());
+        assertEquals(10, response.getTotal());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void whenCursorWithPriceSort_thenThrowException() {
+        when(messageSource.getMessage(eq("error.page.cursor.sort.unsupported"), isNull(), any(Locale.class)))
+            .thenReturn("Cursor pagination is only supported when sorting by newest");
+        warm(catalog(10));
+
+        PageResponse<Product> first = productService.listProducts(pageRequest(1, 4));
+        ProductPageRequest next = pageRequest(1, 4);
+        next.setCursor(first.getNextCursor());
+        next.setSort("price_asc");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> productService.listProducts(next));
+        assertEquals("Cursor pagination is only supported when sorting by newest", exception.getMessage());
+    }
+
+    @Test
+    void whenCursorIsMalformed_thenThrowException() {
+        when(messageSource.getMessage(eq("error.page.cursor.invalid"), isNull(), any(Locale.class)))
+            .thenReturn("Invalid page cursor");
+
+        ProductPageRequest request = pageRequest(1, 10);
+        request.setCursor("not-a-cursor");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> productService.listProducts(request));
+        assertEquals("Invalid page cursor", exception.getMessage());
+        verifyNoInteractions(productMapper);
+    }
+}
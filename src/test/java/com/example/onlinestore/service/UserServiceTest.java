@@ -1,23 +1,37 @@
 package com.example.onlinestore.service;
 
+import com.example.onlinestore.cache.CredentialCache;
+import com.example.onlinestore.cache.RolePermissionCache;
+import com.example.onlinestore.cache.TokenCache;
+import com.example.onlinestore.cache.TotalCountCache;
+import com.example.onlinestore.config.SessionConfig;
 import com.example.onlinestore.dto.LoginRequest;
 import com.example.onlinestore.dto.LoginResponse;
 import com.example.onlinestore.model.User;
 import com.example.onlinestore.mapper.UserMapper;
 import com.example.onlinestore.service.impl.UserServiceImpl;
+import com.example.onlinestore.session.SessionCodec;
+import com.example.onlinestore.session.SessionWriter;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Locale;
 
@@ -43,6 +57,27 @@ public class UserServiceTest {
     @Mock
     private MessageSource messageSource;
 
+    @Mock
+    private TotalCountCache totalCountCache;
+
+    @Mock
+    private TokenCache tokenCache;
+
+    @Mock
+    private CredentialCache credentialCache;
+
+    @Mock
+    private SessionWriter sessionWriter;
+
+    @Mock
+    private RolePermissionCache rolePermissionCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SessionCodec sessionCodec = new SessionConfig().sessionCodec("binary", true);
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -56,6 +91,22 @@ public class UserServiceTest {
         ReflectionTestUtils.setField(userService, "adminUsername", ADMIN_USERNAME);
         ReflectionTestUtils.setField(userService, "adminPassword", ADMIN_PASSWORD);
         ReflectionTestUtils.setField(userService, "userServiceBaseUrl", USER_SERVICE_BASE_URL);
+        ReflectionTestUtils.setField(userService, "userServiceCircuitBreaker", CircuitBreaker.ofDefaults("userService"));
+        ReflectionTestUtils.setField(userService, "userServiceBulkhead", Bulkhead.ofDefaults("userService"));
+        userService.init();
+    }
+
+    /**
+     * 新 token 在事务提交回调中加入本节点缓存，而不是在事务内
+     */
+    private void verifyTokenCachedAfterCommit(String token) {
+        ArgumentCaptor<Runnable> onCommitted = ArgumentCaptor.forClass(Runnable.class);
+        verify(sessionWriter).write(
+            eq("token:" + token), anyString(), eq(Duration.ofDays(1)), onCommitted.capture(), any());
+        verify(tokenCache, never()).put(anyString(), any(User.class));
+
+        onCommitted.getValue().run();
+        verify(tokenCache).put(eq(token), any(User.class));
     }
 
     @Test
@@ -66,8 +117,7 @@ public class UserServiceTest {
         request.setPassword(ADMIN_PASSWORD);
 
         // 设置mock行为：用户不存在
-        when(userMapper.findByUsername(ADMIN_USERNAME)).thenReturn(null);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(userMapper.upsertUser(any(User.class))).thenReturn(1);
 
         // 执行测试
         LoginResponse response = userService.login(request);
@@ -78,10 +128,10 @@ public class UserServiceTest {
         assertNotNull(response.getExpireTime());
         
         // 验证调用
-        verify(userMapper).findByUsername(ADMIN_USERNAME);
-        verify(userMapper).insertUser(any(User.class));
-        verify(userMapper, never()).updateUserToken(any(User.class));
-        verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        verify(userMapper).upsertUser(any(User.class));
+        verify(totalCountCache).increment(TotalCountCache.USERS, 1);
+        verify(rolePermissionCache).resolve(any(User.class));
+        verifyTokenCachedAfterCommit(response.getToken());
         
         // 验证没有调用用户服务
         verify(restTemplate, never()).postForObject(anyString(), any(), any());
@@ -95,12 +145,7 @@ public class UserServiceTest {
         request.setPassword(ADMIN_PASSWORD);
 
         // 设置mock行为：用户已存在
-        User existingUser = new User();
-        existingUser.setUsername(ADMIN_USERNAME);
-        existingUser.setToken("old-token");
-        existingUser.setTokenExpireTime(LocalDateTime.now().minusDays(1));
-        when(userMapper.findByUsername(ADMIN_USERNAME)).thenReturn(existingUser);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(userMapper.upsertUser(any(User.class))).thenReturn(2);
 
         // 执行测试
         LoginResponse response = userService.login(request);
@@ -109,13 +154,11 @@ public class UserServiceTest {
         assertNotNull(response);
         assertNotNull(response.getToken());
         assertNotNull(response.getExpireTime());
-        assertNotEquals("old-token", response.getToken());
         
         // 验证调用
-        verify(userMapper).findByUsername(ADMIN_USERNAME);
-        verify(userMapper, never()).insertUser(any(User.class));
-        verify(userMapper).updateUserToken(any(User.class));
-        verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        verify(userMapper).upsertUser(any(User.class));
+        verify(totalCountCache, never()).increment(anyString(), anyLong());
+        verifyTokenCachedAfterCommit(response.getToken());
         
         // 验证没有调用用户服务
         verify(restTemplate, never()).postForObject(anyString(), any(), any());
@@ -129,10 +172,9 @@ public class UserServiceTest {
         request.setPassword("password");
 
         // 设置mock行为：用户不存在，认证成功
-        when(userMapper.findByUsername("normal_user")).thenReturn(null);
+        when(userMapper.upsertUser(any(User.class))).thenReturn(1);
         when(restTemplate.postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class)))
             .thenReturn(true);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         // 执行测试
         LoginResponse response = userService.login(request);
@@ -143,21 +185,43 @@ public class UserServiceTest {
         assertNotNull(response.getExpireTime());
         
         // 验证调用
-        verify(userMapper).findByUsername("normal_user");
-        verify(userMapper).insertUser(any(User.class));
-        verify(userMapper, never()).updateUserToken(any(User.class));
-        verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        verify(userMapper).upsertUser(any(User.class));
+        verify(totalCountCache).increment(TotalCountCache.USERS, 1);
+        verify(sessionWriter).write(eq("token:" + response.getToken()), anyString(), eq(Duration.ofDays(1)), any(), any());
         verify(restTemplate).postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class));
+        verify(credentialCache).markVerified("normal_user", "password");
 
         // 验证插入的用户数据
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userMapper).insertUser(userCaptor.capture());
+        verify(userMapper).upsertUser(userCaptor.capture());
         User insertedUser = userCaptor.getValue();
         assertEquals("normal_user", insertedUser.getUsername());
         assertEquals(response.getToken(), insertedUser.getToken());
         assertEquals(response.getExpireTime(), insertedUser.getTokenExpireTime());
     }
 
+    @Test
+    void whenNormalUserLogin_thenCallUserServiceOutsideTransaction() {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("normal_user");
+        request.setPassword("password");
+        when(userMapper.upsertUser(any(User.class))).thenReturn(1);
+        when(restTemplate.postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class)))
+            .thenAnswer(invocation -> {
+                // 调用 user-service 时还没有开启事务，不占用数据库连接
+                verifyNoInteractions(transactionManager);
+                return true;
+            });
+
+        userService.login(request);
+
+        InOrder inOrder = inOrder(transactionManager, userMapper, sessionWriter);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userMapper).upsertUser(any(User.class));
+        inOrder.verify(sessionWriter).write(anyString(), anyString(), any(), any(), any());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
     @Test
     void whenNormalUserLoginWithExistingUser_thenUpdateTokenAndReturn() {
         // 准备测试数据
@@ -166,14 +230,9 @@ public class UserServiceTest {
         request.setPassword("password");
 
         // 设置mock行为：用户已存在，认证成功
-        User existingUser = new User();
-        existingUser.setUsername("normal_user");
-        existingUser.setToken("old-token");
-        existingUser.setTokenExpireTime(LocalDateTime.now().minusDays(1));
-        when(userMapper.findByUsername("normal_user")).thenReturn(existingUser);
+        when(userMapper.upsertUser(any(User.class))).thenReturn(2);
         when(restTemplate.postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class)))
             .thenReturn(true);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         // 执行测试
         LoginResponse response = userService.login(request);
@@ -182,22 +241,21 @@ public class UserServiceTest {
         assertNotNull(response);
         assertNotNull(response.getToken());
         assertNotNull(response.getExpireTime());
-        assertNotEquals("old-token", response.getToken());
         
         // 验证调用
-        verify(userMapper).findByUsername("normal_user");
-        verify(userMapper, never()).insertUser(any(User.class));
-        verify(userMapper).updateUserToken(any(User.class));
-        verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        verify(userMapper).upsertUser(any(User.class));
+        verify(totalCountCache, never()).increment(anyString(), anyLong());
+        verify(sessionWriter).write(eq("token:" + response.getToken()), anyString(), eq(Duration.ofDays(1)), any(), any());
         verify(restTemplate).postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class));
 
         // 验证更新的用户数据
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userMapper).updateUserToken(userCaptor.capture());
+        verify(userMapper).upsertUser(userCaptor.capture());
         User updatedUser = userCaptor.getValue();
         assertEquals("normal_user", updatedUser.getUsername());
         assertEquals(response.getToken(), updatedUser.getToken());
         assertEquals(response.getExpireTime(), updatedUser.getTokenExpireTime());
+        assertNull(updatedUser.getCreatedAt());
     }
 
     @Test
@@ -217,10 +275,8 @@ public class UserServiceTest {
         assertEquals("Invalid username or password", exception.getMessage());
         
         // 验证调用
-        verify(userMapper, never()).findByUsername(anyString());
-        verify(userMapper, never()).insertUser(any(User.class));
-        verify(userMapper, never()).updateUserToken(any(User.class));
-        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any());
+        verify(userMapper, never()).upsertUser(any(User.class));
+        verify(sessionWriter, never()).write(anyString(), anyString(), any(), any(), any());
         verify(restTemplate, never()).postForObject(anyString(), any(), any());
     }
 
@@ -243,10 +299,108 @@ public class UserServiceTest {
         assertEquals("Invalid username or password", exception.getMessage());
         
         // 验证调用
-        verify(userMapper, never()).findByUsername(anyString());
-        verify(userMapper, never()).insertUser(any(User.class));
-        verify(userMapper, never()).updateUserToken(any(User.class));
-        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any());
+        verify(userMapper, never()).upsertUser(any(User.class));
+        verify(sessionWriter, never()).write(anyString(), anyString(), any(), any(), any());
         verify(restTemplate).postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void whenCredentialsRecentlyVerified_thenSkipUserService() {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("normal_user");
+        request.setPassword("password");
+        when(credentialCache.isVerified("normal_user", "password")).thenReturn(true);
+        when(userMapper.upsertUser(any(User.class))).thenReturn(2);
+
+        LoginResponse response = userService.login(request);
+
+        assertNotNull(response.getToken());
+        verify(restTemplate, never()).postForObject(anyString(), any(), any());
+        verify(credentialCache, never()).markVerified(anyString(), anyString());
+    }
+
+    @Test
+    void whenCircuitOpen_thenFailFastWithoutCallingUserService() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("userService");
+        circuitBreaker.transitionToOpenState();
+        ReflectionTestUtils.setField(userService, "userServiceCircuitBreaker", circuitBreaker);
+        when(messageSource.getMessage(eq("error.user.service.unavailable"), isNull(), any(Locale.class)))
+            .thenReturn("User service is temporarily unavailable");
+        LoginRequest request = new LoginRequest();
+        request.setUsername("normal_user");
+        request.setPassword("password");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> userService.login(request));
+
+        assertEquals("User service is temporarily unavailable", exception.getMessage());
+        verify(restTemplate, never()).postForObject(anyString(), any(), any());
+        verify(userMapper, never()).upsertUser(any(User.class));
+    }
+
+    @Test
+    void whenBulkheadFull_thenFailFastWithoutCallingUserService() {
+        Bulkhead bulkhead = Bulkhead.of("userService", BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+        assertTrue(bulkhead.tryAcquirePermission());
+        ReflectionTestUtils.setField(userService, "userServiceBulkhead", bulkhead);
+        LoginRequest request = new LoginRequest();
+        request.setUsername("normal_user");
+        request.setPassword("password");
+
+        assertThrows(IllegalStateException.class, () -> userService.login(request));
+        verify(restTemplate, never()).postForObject(anyString(), any(), any());
+    }
+
+    @Test
+    void whenTokenCachedLocally_thenSkipRedis() {
+        User cachedUser = new User();
+        cachedUser.setUsername("normal_user");
+        TokenCache.Entry entry = mock(TokenCache.Entry.class);
+        when(entry.getUser()).thenReturn(cachedUser);
+        when(tokenCache.get("cached-token")).thenReturn(entry);
+
+        assertSame(cachedUser, userService.getUserByToken("cached-token"));
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    void whenTokenUnknown_thenCacheNegativeResult() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("token:unknown-token")).thenReturn(null);
+
+        assertNull(userService.getUserByToken("unknown-token"));
+        verify(tokenCache).putInvalid("unknown-token");
+        verify(tokenCache, never()).put(anyString(), any(User.class));
+    }
+
+    @Test
+    void whenTokenFoundInRedis_thenCacheLocally() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("token:valid-token")).thenReturn("{\"id\":1,\"username\":\"normal_user\"}");
+
+        User user = userService.getUserByToken("valid-token");
+
+        assertEquals("normal_user", user.getUsername());
+        verify(tokenCache).put("valid-token", user);
+    }
+
+    @Test
+    void whenBinarySessionFoundInRedis_thenDecode() {
+        User stored = new User();
+        stored.setId(2L);
+        stored.setUsername("normal_user");
+        stored.setTokenExpireTime(LocalDateTime.now().plusDays(1).withNano(0));
+        String session = sessionCodec.encode(stored);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("token:binary-token")).thenReturn(session);
+
+        User user = userService.getUserByToken("binary-token");
+
+        assertEquals(2L, user.getId());
+        assertEquals("normal_user", user.getUsername());
+        assertEquals(stored.getTokenExpireTime(), user.getTokenExpireTime());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.onlinestore.session;
+
+import com.example.onlinestore.config.SessionConfig;
+import com.example.onlinestore.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("会话编解码测试")
+public class SessionCodecTest {
+
+    private static User user() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("用户_admin");
+        user.setToken("3f2b6c1e-7a8d-4e59-9c0b-1d2e3f4a5b6c");
+        user.setTokenExpireTime(LocalDateTime.of(2024, 5, 1, 12, 30, 15));
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        user.setUpdatedAt(LocalDateTime.of(2024, 4, 30, 12, 30, 15));
+        return user;
+    }
+
+    @Test
+    @DisplayName("二进制格式只保留会话字段且比 JSON 更小")
+    void whenBinaryRoundTrip_thenKeepSessionFields() {
+        BinarySessionCodec codec = new BinarySessionCodec();
+        User user = user();
+
+        String payload = codec.encode(user);
+        User decoded = codec.decode(payload);
+
+        assertTrue(codec.supports(payload));
+        assertEquals(user.getId(), decoded.getId());
+        assertEquals(user.getUsername(), decoded.getUsername());
+        assertEquals(user.getTokenExpireTime(), decoded.getTokenExpireTime());
+        assertNull(decoded.getToken());
+        assertTrue(payload.length() < new JsonSessionCodec().encode(user).length());
+    }
+
+    @Test
+    @DisplayName("二进制格式支持空字段")
+    void whenFieldsNull_thenRoundTrip() {
+        BinarySessionCodec codec = new BinarySessionCodec();
+        User user = new User();
+        user.setUsername("admin");
+
+        User decoded = codec.decode(codec.encode(user));
+
+        assertNull(decoded.getId());
+        assertNull(decoded.getTokenExpireTime());
+        assertEquals("admin", decoded.getUsername());
+    }
+
+    @Test
+    @DisplayName("二进制格式保存角色和权限位图")
+    void whenRolesSet_thenRoundTrip() {
+        BinarySessionCodec codec = new BinarySessionCodec();
+        User user = user();
+        user.setRoles(Set.of("operator"));
+        user.setPermissions(0b110);
+        user.setPermissionRevision(7L);
+
+        User decoded = codec.decode(codec.encode(user));
+
+        assertEquals(Set.of("operator"), decoded.getRoles());
+        assertEquals(0b110, decoded.getPermissions());
+        assertEquals(7L, decoded.getPermissionRevision());
+    }
+
+    @Test
+    @DisplayName("能读取不含角色的 b1 会话，权限待重新解析")
+    void whenLegacyBinaryStored_thenReadWithoutPermissions() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(42L);
+            out.writeLong(Long.MIN_VALUE);
+            out.writeUTF("admin");
+        }
+        String legacy = BinarySessionCodec.LEGACY_PREFIX
+            + Base64.getEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+
+        User decoded = new SessionConfig().sessionCodec("binary", true).decode(legacy);
+
+        assertEquals(42L, decoded.getId());
+        assertEquals("admin", decoded.getUsername());
+        assertTrue(decoded.getRoles().isEmpty());
+        assertEquals(0L, decoded.getPermissionRevision());
+    }
+
+    @Test
+    @DisplayName("以二进制格式写入时仍能读取旧的 JSON 会话")
+    void whenLegacyJsonStored_thenStillReadable() {
+        SessionCodec codec = new SessionConfig().sessionCodec("binary", true);
+        String legacy = new JsonSessionCodec().encode(user());
+
+        User decoded = codec.decode(legacy);
+
+        assertTrue(codec.encode(user()).startsWith(BinarySessionCodec.PREFIX));
+        assertEquals("用户_admin", decoded.getUsername());
+        assertEquals(user().getToken(), decoded.getToken());
+    }
+
+    @Test
+    @DisplayName("配置为 json 时写入 JSON 格式")
+    void whenJsonConfigured_thenWriteJson() {
+        SessionCodec codec = new SessionConfig().sessionCodec("json", true);
+
+        String payload = codec.encode(user());
+
+        assertTrue(payload.startsWith("{"));
+        assertEquals(42L, codec.decode(payload).getId());
+    }
+
+    @Test
+    @DisplayName("未配置为 binary 时写入旧版本节点也能读取的 JSON")
+    void whenBinaryNotConfigured_thenWriteJson() {
+        SessionCodec codec = new SessionConfig().sessionCodec("", true);
+
+        assertTrue(codec.encode(user()).startsWith("{"));
+    }
+
+    @Test
+    @DisplayName("未开启写入权限时写入旧版本节点能读取的格式，读出后待重新解析")
+    void whenPermissionsNotWritten_thenWriteLegacyFormats() {
+        User user = user();
+        user.setRoles(Set.of("operator"));
+        user.setPermissions(0b110);
+        user.setPermissionRevision(7L);
+
+        String binary = new SessionConfig().sessionCodec("binary", false).encode(user);
+        String json = new SessionConfig().sessionCodec("json", false).encode(user);
+
+        assertTrue(binary.startsWith(BinarySessionCodec.LEGACY_PREFIX));
+        assertFalse(json.contains("roles"));
+        assertFalse(json.contains("permission"));
+        SessionCodec reader = new SessionConfig().sessionCodec("json", true);
+        for (String payload : new String[]{binary, json}) {
+            User decoded = reader.decode(payload);
+            assertEquals("用户_admin", decoded.getUsername());
+            assertTrue(decoded.getRoles().isEmpty());
+            assertEquals(0L, decoded.getPermissionRevision());
+        }
+    }
+
+    @Test
+    @DisplayName("读取 JSON 会话时忽略未知字段")
+    void whenJsonHasUnknownField_thenIgnore() {
+        String payload = "{\"id\":42,\"username\":\"admin\",\"addedLater\":true}";
+
+        assertEquals("admin", new JsonSessionCodec().decode(payload).getUsername());
+    }
+
+    @Test
+    @DisplayName("无法识别的格式抛出异常")
+    void whenUnknownFormat_thenThrow() {
+        SessionCodec codec = new SessionConfig().sessionCodec("binary", true);
+
+        assertThrows(IllegalStateException.class, () -> codec.decode("unknown"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.onlinestore.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("会话异步写入测试")
+public class SessionWriterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private SessionWriter sessionWriter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessionWriter, "batchSize", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void useQueueWithoutWorker(int capacity) {
+        ReflectionTestUtils.setField(sessionWriter, "queue", new ArrayBlockingQueue<>(capacity));
+    }
+
+    @Test
+    @DisplayName("后台线程通过 pipeline 写入并执行回调")
+    void whenWritten_thenFlushInBackgroundAndRunCallback() throws Exception {
+        ReflectionTestUtils.setField(sessionWriter, "queueCapacity", 100);
+        sessionWriter.start();
+        CountDownLatch written = new CountDownLatch(3);
+        try {
+            for (int i = 0; i < 3; i++) {
+                sessionWriter.write("token:" + i, "session", Duration.ofDays(1), written::countDown);
+            }
+
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+            verify(redisTemplate, atLeastOnce()).executePipelined(any(RedisCallback.class));
+        } finally {
+            sessionWriter.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("事务提交后才入队")
+    void whenInTransaction_thenEnqueueAfterCommit() {
+        useQueueWithoutWorker(10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        sessionWriter.write("token:a", "session", Duration.ofDays(1), () -> { });
+        assertEquals(0, sessionWriter.pending());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1, sessionWriter.pending());
+    }
+
+    @Test
+    @DisplayName("提交回调在事务提交后执行，回滚时不执行")
+    void whenInTransaction_thenRunCommitCallbackOnlyAfterCommit() {
+        useQueueWithoutWorker(10);
+        AtomicInteger committed = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        sessionWriter.write("token:a", "session", Duration.ofDays(1), committed::incrementAndGet, () -> { });
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(0, committed.get());
+        assertEquals(0, sessionWriter.pending());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1, committed.get());
+        assertEquals(1, sessionWriter.pending());
+    }
+
+    @Test
+    @DisplayName("队列已满时同步写入")
+    void whenQueueFull_thenWriteSynchronously() {
+        useQueueWithoutWorker(1);
+        AtomicInteger callbacks = new AtomicInteger();
+
+        sessionWriter.write("token:a", "session", Duration.ofDays(1), callbacks::incrementAndGet);
+        sessionWriter.write("token:b", "session", Duration.ofDays(1), callbacks::incrementAndGet);
+
+        assertEquals(1, sessionWriter.pending());
+        assertEquals(1, callbacks.get());
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("写入失败时不执行回调")
+    void whenRedisFails_thenSkipCallback() {
+        useQueueWithoutWorker(1);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+            .thenThrow(new RedisConnectionFailureException("down"));
+        AtomicInteger callbacks = new AtomicInteger();
+
+        sessionWriter.write("token:a", "session", Duration.ofDays(1), callbacks::incrementAndGet);
+        sessionWriter.write("token:b", "session", Duration.ofDays(1), callbacks::incrementAndGet);
+
+        assertEquals(0, callbacks.get());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.onlinestore.validation;
+
+import com.example.onlinestore.annotation.ValidateParams;
+import com.example.onlinestore.dto.UserPageRequest;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("参数解析验证测试")
+public class ValidatingArgumentResolverTest {
+
+    @Mock
+    private HandlerMethodArgumentResolver delegate;
+
+    @Mock
+    private MessageSource messageSource;
+
+    private ValidatingArgumentResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new ValidatingArgumentResolver(delegate, new MethodParameterValidator(
+            Validation.buildDefaultValidatorFactory().getValidator(), messageSource));
+    }
+
+    private static MethodParameter parameter(String methodName) throws NoSuchMethodException {
+        return new MethodParameter(SampleController.class.getMethod(methodName, UserPageRequest.class), 0);
+    }
+
+    private static UserPageRequest invalidRequest() {
+        UserPageRequest request = new UserPageRequest();
+        request.setPageNum(0);
+        return request;
+    }
+
+    @Test
+    @DisplayName("验证通过时返回解析结果")
+    void whenValid_thenReturnArgument() throws Exception {
+        MethodParameter parameter = parameter("validated");
+        UserPageRequest request = new UserPageRequest();
+        when(delegate.resolveArgument(parameter, null, null, null)).thenReturn(request);
+
+        assertSame(request, resolver.resolveArgument(parameter, null, null, null));
+        verifyNoInteractions(messageSource);
+    }
+
+    @Test
+    @DisplayName("验证失败时抛出本地化的异常")
+    void whenInvalid_thenThrowLocalizedException() throws Exception {
+        MethodParameter parameter = parameter("validated");
+        when(delegate.resolveArgument(parameter, null, null, null)).thenReturn(invalidRequest());
+        when(messageSource.getMessage(anyString(), any(), any())).thenReturn("页码必须大于0");
+
+        ParameterValidationException exception = assertThrows(ParameterValidationException.class,
+            () -> resolver.resolveArgument(parameter, null, null, null));
+        assertEquals("页码必须大于0", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("未标注 @ValidateParams 的方法不验证")
+    void whenMethodNotAnnotated_thenSkipValidation() throws Exception {
+        MethodParameter parameter = parameter("unvalidated");
+        UserPageRequest request = invalidRequest();
+        when(delegate.resolveArgument(parameter, null, null, null)).thenReturn(request);
+
+        assertSame(request, resolver.resolveArgument(parameter, null, null, null));
+        verifyNoInteractions(messageSource);
+    }
+
+    static class SampleController {
+        @ValidateParams
+        public void validated(UserPageRequest request) {
+        }
+
+        public void unvalidated(UserPageRequest request) {
+        }
+    }
+}